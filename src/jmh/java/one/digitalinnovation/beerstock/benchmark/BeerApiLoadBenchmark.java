@@ -0,0 +1,125 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps {@code connections} requests in flight against the catalog page, first on Tomcat and then on
+ * Netty with the {@code reactive} profile, and prints the latency percentiles and the peak thread count.
+ * Every connection needs a descriptor on both ends, so raise {@code ulimit -n} above twice the connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BeerApiLoadBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000;
+    private static final int REQUESTS_PER_CONNECTION = 5;
+    private static final String CATALOG_PAGE = "/api/v1/beers?limit=100";
+
+    @Param({"servlet", "reactive"})
+    private String mode;
+
+    @Param({"10000"})
+    private int connections;
+
+    private ConfigurableApplicationContext context;
+    private LoopResources clientLoops;
+    private ConnectionProvider connectionProvider;
+    private HttpClient httpClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String connectionLimit = String.valueOf(connections);
+        context = "reactive".equals(mode)
+                ? BenchmarkApplication.start(WebApplicationType.REACTIVE,
+                "spring.profiles.active=reactive",
+                "server.port=0")
+                : BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "server.port=0",
+                "server.tomcat.max-connections=" + connectionLimit,
+                "server.tomcat.accept-count=" + connectionLimit);
+        BenchmarkApplication.insertCatalog(context, CATALOG_SIZE);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        clientLoops = LoopResources.create("load-client", 1, true);
+        connectionProvider = ConnectionProvider.builder("load-client")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(1))
+                .build();
+        httpClient = HttpClient.create(connectionProvider)
+                .tcpConfiguration(tcpClient -> tcpClient.runOn(clientLoops))
+                .baseUrl("http://localhost:" + port);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionProvider.disposeLater().block();
+        clientLoops.disposeLater().block();
+        context.close();
+    }
+
+    @Benchmark
+    public long[] catalogPage() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+        int requests = connections * REQUESTS_PER_CONNECTION;
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        Flux.range(0, requests)
+                .flatMap(request -> {
+                    long start = System.nanoTime();
+                    return httpClient.get()
+                            .uri(CATALOG_PAGE)
+                            .responseSingle((response, body) -> body.then(Mono.just(response.status())))
+                            .doOnNext(status -> {
+                                if (!HttpResponseStatus.OK.equals(status)) {
+                                    failures.incrementAndGet();
+                                }
+                            })
+                            .onErrorResume(e -> {
+                                failures.incrementAndGet();
+                                return Mono.empty();
+                            })
+                            .doFinally(signal -> latencies[request] = System.nanoTime() - start);
+                }, connections)
+                .blockLast();
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d requests over %d connections, p50 %d ms, p99 %d ms, %d failures, %d peak threads%n",
+                mode, requests, connections,
+                TimeUnit.NANOSECONDS.toMillis(latencies[requests / 2]),
+                TimeUnit.NANOSECONDS.toMillis(latencies[requests * 99 / 100]),
+                failures.get(), threadMXBean.getPeakThreadCount());
+        return latencies;
+    }
+}
@@ -0,0 +1,83 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading a list of 10k beers with the object mappers Spring MVC builds for each media type
+ * the API negotiates. The payload size of each format is printed on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerBinaryFormatBenchmark {
+
+    private static final int BEERS = 10_000;
+    private static final BeerType[] BEER_TYPES = BeerType.values();
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectWriter beersWriter;
+    private ObjectReader beersReader;
+    private List<BeerDTO> beerDTOs;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = objectMapper().build();
+        beersWriter = objectMapper.writerFor(new TypeReference<List<BeerDTO>>() {});
+        beersReader = objectMapper.readerFor(new TypeReference<List<BeerDTO>>() {});
+        beerDTOs = new ArrayList<>(BEERS);
+        for (int i = 0; i < BEERS; i++) {
+            beerDTOs.add(new BeerDTO(i + 1L, "Catalog Beer " + i, "Benchmark Brewery " + i % 100, 500, i % 500, BEER_TYPES[i % BEER_TYPES.length]));
+        }
+        payload = beersWriter.writeValueAsBytes(beerDTOs);
+        System.out.println(format + " payload: " + payload.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return beersWriter.writeValueAsBytes(beerDTOs);
+    }
+
+    @Benchmark
+    public List<BeerDTO> decode() throws IOException {
+        return beersReader.readValue(payload);
+    }
+
+    private Jackson2ObjectMapperBuilder objectMapper() {
+        switch (format) {
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile();
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor();
+            default:
+                return Jackson2ObjectMapperBuilder.json();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates 100k beers through the batch endpoint's service method. A JDBC batch size of 1 sends one
+ * INSERT per round trip, which is what the identity-generated ids forced on every bulk load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class BeerBulkInsertBenchmark {
+
+    private static final int BEERS = 100_000;
+    private static final int BEERS_PER_REQUEST = 1_000;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private List<List<BeerDTO>> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        beerService = context.getBean(BeerService.class);
+        requests = new ArrayList<>();
+        for (int first = 0; first < BEERS; first += BEERS_PER_REQUEST) {
+            List<BeerDTO> beerDTOs = new ArrayList<>(BEERS_PER_REQUEST);
+            for (int i = first; i < first + BEERS_PER_REQUEST; i++) {
+                beerDTOs.add(new BeerDTO(null, "Bulk Beer " + i, "Bulk Brewery", 500, i % 100, BeerType.LAGER));
+            }
+            requests.add(beerDTOs);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void deleteBeers() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> jdbcTemplate.update("delete from beer"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createBeers() throws BeerAlreadyRegisteredException {
+        int created = 0;
+        for (List<BeerDTO> request : requests) {
+            created += beerService.createBeers(request).size();
+        }
+        return created;
+    }
+}
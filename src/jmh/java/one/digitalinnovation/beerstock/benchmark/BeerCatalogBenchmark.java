@@ -0,0 +1,70 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BeerCatalogBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private long lastPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        BenchmarkApplication.insertCatalog(context, catalogSize);
+        lastPageCursor = BenchmarkApplication.CATALOG_FIRST_ID + catalogSize - BeerService.DEFAULT_PAGE_SIZE - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerPageDTO firstPage() {
+        return beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+    }
+
+    @Benchmark
+    public BeerPageDTO lastPage() {
+        return beerService.listAll(lastPageCursor, BeerService.DEFAULT_PAGE_SIZE, null, null);
+    }
+
+    @Benchmark
+    public BeerPageDTO lastPageByType() {
+        return beerService.listAll(lastPageCursor, BeerService.DEFAULT_PAGE_SIZE, BeerType.IPA, null);
+    }
+
+    @Benchmark
+    public BeerPageDTO lastPageByBrand() {
+        return beerService.listAll(lastPageCursor, BeerService.DEFAULT_PAGE_SIZE, null, BenchmarkApplication.CATALOG_BRAND + " 7");
+    }
+}
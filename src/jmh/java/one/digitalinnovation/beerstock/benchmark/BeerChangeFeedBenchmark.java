@@ -0,0 +1,90 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstock.feed.ChangeFeedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stock move published to the change feed and fanned out to every subscriber, timed until the last one
+ * has it, with no connection behind the subscribers. {@code publish} alone is what a writer pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerChangeFeedBenchmark {
+
+    private static final BeerChangeEvent CHANGE = new BeerChangeEvent(BeerChangeType.INCREMENTED,
+            new BeerDTO(1L, "Feed Beer", "Benchmark Brewery", 500, 250, BeerType.LAGER), 1);
+
+    @Param({"1000", "10000"})
+    private int subscribers;
+
+    private BeerChangeFeed beerChangeFeed;
+    private final AtomicLong delivered = new AtomicLong();
+    private long published;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        beerChangeFeed = new BeerChangeFeed(new ObjectMapper(), 4096, 256, 4, Duration.ofSeconds(10));
+        for (int i = 0; i < subscribers; i++) {
+            beerChangeFeed.subscribe(null, new BeerChangeFeed.Subscriber() {
+
+                @Override
+                public long demand() {
+                    return Long.MAX_VALUE;
+                }
+
+                @Override
+                public void send(List<ChangeFeedEvent> events) {
+                    delivered.addAndGet(events.size());
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        beerChangeFeed.close();
+    }
+
+    @Benchmark
+    public long publishToAll() {
+        beerChangeFeed.onBeerChange(CHANGE);
+        long expected = ++published * subscribers;
+        while (delivered.get() < expected) {
+            Thread.yield();
+        }
+        return expected;
+    }
+
+    @Benchmark
+    public long publish() {
+        beerChangeFeed.onBeerChange(CHANGE);
+        return ++published;
+    }
+}
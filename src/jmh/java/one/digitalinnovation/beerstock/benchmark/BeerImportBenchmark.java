@@ -0,0 +1,91 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.service.BeerImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a generated NDJSON upload into a file-backed database from a JVM capped at 256 MB of heap:
+ * the upload is produced on the fly, so the import only completes if it streams rows through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class BeerImportBenchmark {
+
+    @Param({"500000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private BeerImportService beerImportService;
+    private int upload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.datasource.url=jdbc:h2:file:./target/jmh-import;CACHE_SIZE=8192;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.hibernate.ddl-auto=create-drop");
+        beerImportService = context.getBean(BeerImportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerImportResultDTO importNdjson() throws IOException {
+        BeerImportResultDTO result = beerImportService.importNdjson(new GeneratedUpload(upload++, rows));
+        System.out.printf("%d rows imported at %d rows/s%n", result.getImported(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private static class GeneratedUpload extends InputStream {
+
+        private final int upload;
+        private final int rows;
+        private int row;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedUpload(int upload, int rows) {
+            this.upload = upload;
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (row == rows) {
+                    return -1;
+                }
+                line = String.format("{\"name\":\"Import %d-%d\",\"brand\":\"Import Brewery\",\"max\":500,\"quantity\":%d,\"type\":\"LAGER\"}%n",
+                        upload, row, row % 100).getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                row++;
+            }
+            return line[position++];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read endpoints with the name cache disabled, so every call reaches the database.
+ * Run with {@code -prof gc} to report the bytes allocated per call next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerReadPathBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final String BEER_NAME = "Catalog Beer " + (BenchmarkApplication.CATALOG_FIRST_ID + CATALOG_SIZE / 2);
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "beerstock.cache.beers-by-name.expire-after-write=0s",
+                "beerstock.cache.beers-by-name.expire-missing-after-write=0s");
+        beerService = context.getBean(BeerService.class);
+        BenchmarkApplication.insertCatalog(context, CATALOG_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO findByName() throws BeerNotFoundException {
+        return beerService.findByName(BEER_NAME);
+    }
+
+    @Benchmark
+    public BeerPageDTO listAll() {
+        return beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+    }
+}
@@ -0,0 +1,74 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.search.BeerSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead queries against an index of a million beers with made-up names. Each query shape is one
+ * parameter value: a short common prefix, a selective prefix, two words, a type filter and a typo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BeerSearchBenchmark {
+
+    private static final int BEERS = 1_000_000;
+    private static final String[] SYLLABLES = {"bra", "hma", "sko", "lor", "ado", "ind", "ica", "eis", "ing",
+            "er", "bud", "wei", "ser", "ori", "gin", "al", "stel", "la", "ar", "tois", "hei", "ne", "ken", "co",
+            "ro", "na", "pa", "tag", "oni", "mal"};
+    private static final String[] STYLES = {"Lager", "Pilsen", "Weiss", "Ale", "IPA", "Stout", "Porter", "Bock"};
+    private static final BeerType[] TYPES = BeerType.values();
+
+    @Param({"bra", "brahmasko", "brahma lager", "brahma:IPA", "brhamasko"})
+    private String query;
+
+    private BeerSearchIndex beerSearchIndex;
+    private String text;
+    private BeerType type;
+
+    @Setup
+    public void setUp() {
+        beerSearchIndex = new BeerSearchIndex(null);
+        Random random = new Random(42);
+        for (long id = 1; id <= BEERS; id++) {
+            String name = syllable(random) + syllable(random) + syllable(random) + " "
+                    + STYLES[random.nextInt(STYLES.length)] + " " + id;
+            String brand = "Cervejaria " + syllable(random) + syllable(random);
+            BeerDTO beerDTO = new BeerDTO(id, name, brand, 500, 0, TYPES[random.nextInt(TYPES.length)]);
+            beerSearchIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, 0));
+        }
+        String[] queryAndType = query.split(":");
+        text = queryAndType[0];
+        type = queryAndType.length > 1 ? BeerType.valueOf(queryAndType[1]) : null;
+    }
+
+    @Benchmark
+    public List<BeerDTO> search() {
+        return beerSearchIndex.search(text, type, 10);
+    }
+
+    private static String syllable(Random random) {
+        return SYLLABLES[random.nextInt(SYLLABLES.length)];
+    }
+}
@@ -0,0 +1,77 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads moving the stock of one beer up and down, with its stock on the beer row (zero shards)
+ * or split across a growing number of shard rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BeerShardedStockBenchmark {
+
+    private static final long BEER_ID = BenchmarkApplication.CATALOG_FIRST_ID;
+
+    @Param({"0", "1", "4", "16"})
+    private int shards;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+
+    @State(Scope.Thread)
+    public static class Direction {
+
+        private boolean up;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws BeerNotFoundException {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        BenchmarkApplication.insertCatalog(context, 1);
+        if (shards > 0) {
+            beerService.shardStock(BEER_ID, shards);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO moveStock(Direction direction) throws BeerNotFoundException {
+        direction.up = !direction.up;
+        try {
+            return direction.up ? beerService.increment(BEER_ID, 1) : beerService.decrement(BEER_ID, 1);
+        } catch (BeerStockExceededException | BeerStockConflictException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Time from launching a new JVM to the first successful {@code GET /api/v1/beers}, with the default
+ * configuration and with the {@code fast-start} profile, each with and without a class-data-sharing archive
+ * made by a training run of the same configuration. Run it with {@code -Pjmh,fast-start} so the component
+ * index is built; the default configuration ignores it, as it does not turn off the API docs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BeerStartupBenchmark {
+
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    @Param({"default", "fast-start"})
+    private String profile;
+
+    @Param({"false", "true"})
+    private boolean cds;
+
+    private Path directory;
+    private String classpath;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("beerstock-startup");
+        classpath = classpath();
+        if (cds) {
+            firstSuccessfulRequest("-XX:ArchiveClassesAtExit=" + archive(), "-Xlog:cds=off");
+            stop();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        process.destroy();
+        process.waitFor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        return cds ? firstSuccessfulRequest("-XX:SharedArchiveFile=" + archive(), "-Xlog:cds=off") : firstSuccessfulRequest();
+    }
+
+    private int firstSuccessfulRequest(String... jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(Arrays.asList(jvmArgs));
+        command.add(0, Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (profile.equals("default")) {
+            command.add("-Dspring.index.ignore=true");
+        }
+        command.addAll(Arrays.asList("-cp", classpath, BeerstockApplication.class.getName(),
+                "--server.port=" + port, "--spring.profiles.active=" + profile));
+        process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        URL url = new URL("http://localhost:" + port + "/api/v1/beers");
+        while (true) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                int status = connection.getResponseCode();
+                connection.disconnect();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException e) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue(), e);
+                }
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * The benchmark classpath without test classes and devtools, with the application classes in a jar:
+     * class-data-sharing only archives classes read from jars.
+     */
+    private String classpath() throws IOException {
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Paths.get(entry);
+            if (Files.isDirectory(path) && path.getFileName().toString().equals("classes")) {
+                entries.add(0, jar(path, directory.resolve("beerstock.jar")).toString());
+            } else if (!Files.isDirectory(path) && !entry.contains("spring-boot-devtools")) {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static Path jar(Path classes, Path jar) throws IOException {
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> paths = Files.walk(classes)) {
+            for (Path path : paths.skip(1).collect(Collectors.toList())) {
+                String name = classes.relativize(path).toString().replace(File.separatorChar, '/');
+                if (Files.isDirectory(path)) {
+                    output.putNextEntry(new ZipEntry(name + '/'));
+                } else {
+                    output.putNextEntry(new ZipEntry(name));
+                    Files.copy(path, output);
+                }
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private Path archive() {
+        return directory.resolve("beerstock.jsa");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
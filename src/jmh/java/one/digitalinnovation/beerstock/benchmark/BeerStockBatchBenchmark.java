@@ -0,0 +1,86 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveResultDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same stock moves applied one call each and as one batch. Every beer is moved up and back down, so
+ * the stock stays the same across invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerStockBatchBenchmark {
+
+    private static final int BEERS = 20;
+
+    @Param({"200", "1000"})
+    private int moves;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private final List<StockMoveDTO> stockMoves = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws BeerAlreadyRegisteredException {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        List<Long> beerIds = new ArrayList<>(BEERS);
+        for (int i = 0; i < BEERS; i++) {
+            beerIds.add(beerService.createBeer(new BeerDTO(null, "Batch Beer " + i, "Ambev", 500, 250, BeerType.LAGER)).getId());
+        }
+        for (int i = 0; i < moves; i++) {
+            int delta = i / BEERS % 2 == 0 ? 1 : -1;
+            stockMoves.add(StockMoveDTO.builder().id(beerIds.get(i % BEERS)).delta(delta).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO singleCalls() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+        BeerDTO beerDTO = null;
+        for (StockMoveDTO stockMove : stockMoves) {
+            beerDTO = stockMove.getDelta() > 0
+                    ? beerService.increment(stockMove.getId(), stockMove.getDelta())
+                    : beerService.decrement(stockMove.getId(), -stockMove.getDelta());
+        }
+        return beerDTO;
+    }
+
+    @Benchmark
+    public List<StockMoveResultDTO> batch() {
+        return beerService.applyStockMoves(stockMoves);
+    }
+}
@@ -0,0 +1,59 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+
+final class BenchmarkApplication {
+
+    static final long CATALOG_FIRST_ID = 1_000_000L;
+    static final String CATALOG_BRAND = "Benchmark Brewery";
+
+    private static final int INSERT_BATCH_SIZE = 50_000;
+    private static final BeerType[] BEER_TYPES = BeerType.values();
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        return new SpringApplicationBuilder(BeerstockApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN")
+                .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    static void insertCatalog(ConfigurableApplicationContext context, int catalogSize) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                "alter sequence beer_seq restart with " + (CATALOG_FIRST_ID + catalogSize)));
+        for (int first = 0; first < catalogSize; first += INSERT_BATCH_SIZE) {
+            long firstId = CATALOG_FIRST_ID + first;
+            long lastId = CATALOG_FIRST_ID + Math.min(first + INSERT_BATCH_SIZE, catalogSize) - 1;
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "insert into beer (id, name, brand, max, quantity, type, version) " +
+                            "select x, 'Catalog Beer ' || x, '" + CATALOG_BRAND + " ' || mod(x, 100), 500, mod(x, 500), " +
+                            typeOf("x") + ", 0 from system_range(?, ?)", firstId, lastId));
+        }
+    }
+
+    private static String typeOf(String column) {
+        StringBuilder expression = new StringBuilder("case mod(").append(column).append(", ").append(BEER_TYPES.length).append(")");
+        for (BeerType type : BEER_TYPES) {
+            expression.append(" when ").append(type.ordinal()).append(" then '").append(type.name()).append("'");
+        }
+        return expression.append(" end").toString();
+    }
+}
@@ -0,0 +1,98 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.cache.CatalogVersion;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An unfiltered catalog page over HTTP, served from the serialized page kept for the current catalog
+ * version, against the same request right after a change, when the page is loaded, mapped and serialized
+ * again, and against a poll carrying the current ETag, answered with a bodiless 304.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CatalogResponseBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final BeerChangeEvent CHANGE = new BeerChangeEvent(BeerChangeType.INCREMENTED,
+            new BeerDTO(BenchmarkApplication.CATALOG_FIRST_ID, "Catalog Beer", "Benchmark Brewery", 500, 0, BeerType.LAGER), 0);
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ConfigurableApplicationContext context;
+    private CatalogVersion catalogVersion;
+    private HttpClient httpClient;
+    private HttpRequest request;
+    private HttpRequest conditionalRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET, "server.port=0");
+        catalogVersion = context.getBean(CatalogVersion.class);
+        BenchmarkApplication.insertCatalog(context, CATALOG_SIZE);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/beers?limit=" + pageSize))
+                .header(HttpHeaders.ACCEPT_ENCODING, encoding)
+                .build();
+        conditionalRequest = HttpRequest.newBuilder(request.uri())
+                .header(HttpHeaders.ACCEPT_ENCODING, encoding)
+                .header(HttpHeaders.IF_NONE_MATCH, catalogVersion.catalogETag())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] cachedPage() throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public int conditionalPoll() throws IOException, InterruptedException {
+        return httpClient.send(conditionalRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public byte[] pageAfterChange() throws IOException, InterruptedException {
+        catalogVersion.onBeerChange(CHANGE);
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
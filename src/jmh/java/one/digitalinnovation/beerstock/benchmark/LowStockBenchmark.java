@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.stats.LowStockIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first page of beers at or below a stock ratio, read from the low-stock index against walking the
+ * whole catalog with {@link BeerService#listAll} and filtering it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LowStockBenchmark {
+
+    private static final int LIMIT = 100;
+
+    @Param({"10000", "1000000"})
+    private int catalogSize;
+
+    @Param({"0.01", "0.2"})
+    private double ratio;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private LowStockIndex lowStockIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        lowStockIndex = context.getBean(LowStockIndex.class);
+        BenchmarkApplication.insertCatalog(context, catalogSize);
+        // the catalog is inserted behind the index's back, so it is loaded again as on startup
+        lowStockIndex.afterSingletonsInstantiated();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeerDTO> index() {
+        return lowStockIndex.findAtOrBelow(ratio, LIMIT);
+    }
+
+    @Benchmark
+    public List<BeerDTO> catalogScan() {
+        List<BeerDTO> found = new ArrayList<>();
+        Long after = null;
+        do {
+            BeerPageDTO page = beerService.listAll(after, BeerService.MAX_PAGE_SIZE, null, null);
+            page.getBeers().stream()
+                    .filter(beerDTO -> (double) beerDTO.getQuantity() / beerDTO.getMax() <= ratio)
+                    .forEach(found::add);
+            after = page.getNextCursor();
+        } while (after != null);
+        found.sort((first, second) -> Double.compare((double) first.getQuantity() / first.getMax(),
+                (double) second.getQuantity() / second.getMax()));
+        return found.subList(0, Math.min(LIMIT, found.size()));
+    }
+}
@@ -0,0 +1,82 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.journal.StockJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilding the beers from a journal of ten million entries. With 1GB segments every entry is still in
+ * the open segment and is replayed; with 64MB segments the closed ones have been folded into a snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StockJournalRecoveryBenchmark {
+
+    private static final int ENTRIES = 10_000_000;
+    private static final int BEERS = 1000;
+
+    @Param({"64MB", "1GB"})
+    private String segmentSize;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("stock-journal-recovery");
+        StockJournal stockJournal = new StockJournal(directory.toString(), DataSize.parse(segmentSize), null, null);
+        stockJournal.recover();
+        BeerDTO[] beers = new BeerDTO[BEERS];
+        for (int i = 0; i < BEERS; i++) {
+            beers[i] = new BeerDTO(i + 1L, "Journal Beer " + i, "Ambev", 500, 0, BeerType.LAGER);
+            stockJournal.append(new BeerChangeEvent(BeerChangeType.CREATED, beers[i], 0));
+        }
+        BeerChangeEvent[] moves = new BeerChangeEvent[BEERS * 2];
+        for (int i = 0; i < BEERS; i++) {
+            moves[2 * i] = new BeerChangeEvent(BeerChangeType.INCREMENTED, beers[i], 1);
+            moves[2 * i + 1] = new BeerChangeEvent(BeerChangeType.DECREMENTED, beers[i], -1);
+        }
+        for (int i = BEERS; i < ENTRIES; i++) {
+            stockJournal.append(moves[i % moves.length]);
+        }
+        stockJournal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Map<Long, BeerDTO> replay() throws Exception {
+        Map<Long, BeerDTO> beers = new HashMap<>();
+        StockJournal.replay(directory, beers);
+        return beers;
+    }
+}
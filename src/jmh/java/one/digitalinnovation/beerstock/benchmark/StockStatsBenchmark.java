@@ -0,0 +1,92 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.StockStatsDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.stats.StockAggregates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock stats served from the in-memory aggregates, unchanged and right after a stock move, against the
+ * table scan they replace and that reconciliation still runs in the background.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StockStatsBenchmark {
+
+    private static final long BEER_ID = BenchmarkApplication.CATALOG_FIRST_ID;
+
+    @Param({"10000", "1000000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerRepository beerRepository;
+    private StockAggregates stockAggregates;
+    private boolean up;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        beerRepository = context.getBean(BeerRepository.class);
+        stockAggregates = context.getBean(StockAggregates.class);
+        BenchmarkApplication.insertCatalog(context, catalogSize);
+        // the catalog is inserted behind the aggregates' back: the second run takes it in as a stable drift
+        stockAggregates.reconcile();
+        stockAggregates.reconcile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public StockStatsDTO stats() {
+        return stockAggregates.getStats();
+    }
+
+    @Benchmark
+    public StockStatsDTO statsAfterMove() throws BeerNotFoundException, BeerStockConflictException {
+        up = !up;
+        try {
+            if (up) {
+                beerService.increment(BEER_ID, 1);
+            } else {
+                beerService.decrement(BEER_ID, 1);
+            }
+        } catch (BeerStockExceededException e) {
+            up = !up;
+        }
+        return stockAggregates.getStats();
+    }
+
+    @Benchmark
+    public List<Object[]> tableScan() {
+        return beerRepository.sumStockByTypeAndBrand();
+    }
+}
@@ -0,0 +1,74 @@
+package one.digitalinnovation.beerstock.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class BeerCache {
+
+    public static final String BEERS_BY_NAME = "beersByName";
+
+    private final Cache<String, Optional<BeerDTO>> beersByName;
+
+    public BeerCache(@Value("${beerstock.cache.beers-by-name.maximum-size:10000}") long maximumSize,
+                     @Value("${beerstock.cache.beers-by-name.expire-after-write:5m}") Duration expireAfterWrite,
+                     @Value("${beerstock.cache.beers-by-name.expire-missing-after-write:30s}") Duration expireMissingAfterWrite,
+                     MeterRegistry meterRegistry) {
+        this.beersByName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new FoundOrMissingExpiry(expireAfterWrite, expireMissingAfterWrite))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, beersByName, BEERS_BY_NAME);
+    }
+
+    public Optional<BeerDTO> getByName(String name, Function<String, Optional<BeerDTO>> loader) {
+        return beersByName.get(name, loader);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        beersByName.invalidate(beerChangeEvent.getBeer().getName());
+    }
+
+    private static class FoundOrMissingExpiry implements Expiry<String, Optional<BeerDTO>> {
+
+        private final long foundNanos;
+        private final long missingNanos;
+
+        FoundOrMissingExpiry(Duration found, Duration missing) {
+            this.foundNanos = found.toNanos();
+            this.missingNanos = missing.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String name, Optional<BeerDTO> beer, long currentTime) {
+            return beer.isPresent() ? foundNanos : missingNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String name, Optional<BeerDTO> beer, long currentTime, long currentDuration) {
+            return expireAfterCreate(name, beer, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String name, Optional<BeerDTO> beer, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package one.digitalinnovation.beerstock.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Value;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON and gzipped JSON of the unfiltered catalog pages, serialized once per catalog version and written
+ * as they are to every later request for the same page. Pages are kept for the latest version only, so the
+ * first request after a change rebuilds its page and the pages of older versions are dropped.
+ */
+@Component
+public class CatalogPageCache {
+
+    static final int MAX_PAGES = 256;
+
+    private final ObjectWriter beersWriter;
+    private volatile Snapshot snapshot = new Snapshot(-1L);
+
+    public CatalogPageCache(ObjectMapper objectMapper) {
+        this.beersWriter = objectMapper.writerFor(new TypeReference<List<BeerDTO>>() {});
+    }
+
+    /**
+     * The page starting after {@code after} as of catalog {@code version} or a later one, loading and
+     * serializing it on the first request. Once {@link #MAX_PAGES} pages of a version are kept, further
+     * pages are serialized for the request only. Requests for a page being loaded wait for that load; the
+     * load itself runs outside the map, so other pages are never held up by it.
+     */
+    public SerializedPage getPage(long version, Long after, int pageSize, Supplier<BeerPageDTO> loader) {
+        Snapshot current = snapshot;
+        if (current.version < version) {
+            current = new Snapshot(version);
+            snapshot = current;
+        }
+        PageKey pageKey = new PageKey(after, pageSize);
+        CompletableFuture<SerializedPage> page = current.pages.get(pageKey);
+        if (page == null) {
+            if (current.pages.size() >= MAX_PAGES) {
+                return serialize(loader.get());
+            }
+            CompletableFuture<SerializedPage> loading = new CompletableFuture<>();
+            page = current.pages.putIfAbsent(pageKey, loading);
+            if (page == null) {
+                return load(current, pageKey, loading, loader);
+            }
+        }
+        return SingleFlight.join(page);
+    }
+
+    private SerializedPage load(Snapshot snapshot, PageKey pageKey, CompletableFuture<SerializedPage> loading,
+                                Supplier<BeerPageDTO> loader) {
+        try {
+            SerializedPage page = serialize(loader.get());
+            loading.complete(page);
+            return page;
+        } catch (RuntimeException | Error e) {
+            snapshot.pages.remove(pageKey, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private SerializedPage serialize(BeerPageDTO beerPage) {
+        try {
+            byte[] json = beersWriter.writeValueAsBytes(beerPage.getBeers());
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream output = new GZIPOutputStream(gzip)) {
+                output.write(json);
+            }
+            return new SerializedPage(json, gzip.toByteArray(), beerPage.getNextCursor());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A page as written to the response. The arrays are never changed once built.
+     */
+    public static class SerializedPage {
+
+        private final byte[] json;
+        private final byte[] gzip;
+        private final Long nextCursor;
+
+        SerializedPage(byte[] json, byte[] gzip, Long nextCursor) {
+            this.json = json;
+            this.gzip = gzip;
+            this.nextCursor = nextCursor;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public Long getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    @Value
+    private static class PageKey {
+
+        Long after;
+
+        int pageSize;
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+        private final Map<PageKey, CompletableFuture<SerializedPage>> pages = new ConcurrentHashMap<>();
+
+        Snapshot(long version) {
+            this.version = version;
+        }
+    }
+}
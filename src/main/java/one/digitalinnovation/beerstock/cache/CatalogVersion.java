@@ -0,0 +1,86 @@
+package one.digitalinnovation.beerstock.cache;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the catalog and of each beer, bumped after every committed change.
+ * ETags carry the boot epoch so versions restarting from zero never match an ETag issued before a restart.
+ * Bumps run after the other change listeners, so a new ETag is never paired with a stale cached beer.
+ * Only beers that exist have a version, starting at zero for the beers registered at startup, so a beer
+ * ETag can be checked before the beer is looked up. A deleted beer drops its version; the version it gets
+ * when created again is newer than any it had.
+ */
+@Component
+public class CatalogVersion implements SmartInitializingSingleton {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final BeerRepository beerRepository;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Map<String, Long> beerVersions = new ConcurrentHashMap<>();
+
+    public CatalogVersion(BeerRepository beerRepository) {
+        this.beerRepository = beerRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long after = 0L;
+        List<BeerDTO> page;
+        do {
+            page = beerRepository.findBeerDTOsByIdGreaterThan(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            page.forEach(beerDTO -> beerVersions.putIfAbsent(beerDTO.getName(), 0L));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    public long version() {
+        return catalogVersion.get();
+    }
+
+    public String catalogETag() {
+        return eTag(catalogVersion.get());
+    }
+
+    public String catalogETag(long version) {
+        return eTag(version);
+    }
+
+    /**
+     * The ETag of the beer with this name, or nothing when no such beer exists.
+     */
+    public Optional<String> beerETag(String name) {
+        return Optional.ofNullable(beerVersions.get(name)).map(this::eTag);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        long version = catalogVersion.incrementAndGet();
+        if (beerChangeEvent.getType() == BeerChangeType.DELETED) {
+            beerVersions.remove(beerChangeEvent.getBeer().getName());
+        } else {
+            beerVersions.merge(beerChangeEvent.getBeer().getName(), version, Math::max);
+        }
+    }
+
+    private String eTag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,68 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import one.digitalinnovation.beerstock.entity.Beer;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${beerstock.cache.second-level.beer.maximum-size:10000}") long beerMaximumSize,
+            @Value("${beerstock.cache.second-level.beer.expire-after-write:10m}") Duration beerExpireAfterWrite,
+            @Value("${beerstock.cache.second-level.queries.maximum-size:10000}") long queriesMaximumSize,
+            @Value("${beerstock.cache.second-level.queries.expire-after-write:10m}") Duration queriesExpireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("beerstock:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Beer.class.getName(), boundedRegion(beerMaximumSize, beerExpireAfterWrite));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                boundedRegion(queriesMaximumSize, queriesExpireAfterWrite));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    /**
+     * Hits, misses, puts and evictions of every region, from the statistics of the JCache provider, so they
+     * are recorded without turning on Hibernate's own statistics.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return meterRegistry -> secondLevelCacheManager.getCacheNames()
+                .forEach(name -> JCacheMetrics.monitor(meterRegistry, secondLevelCacheManager.getCache(name)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> boundedRegion(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> region = region();
+        region.setMaximumSize(OptionalLong.of(maximumSize));
+        region.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return region;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region() {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setStoreByValue(false);
+        region.setStatisticsEnabled(true);
+        return region;
+    }
+}
@@ -1,33 +1,92 @@
 package one.digitalinnovation.beerstock.controller;
 
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.cache.CatalogPageCache;
+import one.digitalinnovation.beerstock.cache.CatalogPageCache.SerializedPage;
+import one.digitalinnovation.beerstock.cache.CatalogVersion;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.StockBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveResultDTO;
+import one.digitalinnovation.beerstock.dto.StockShardsDTO;
+import one.digitalinnovation.beerstock.dto.StockStatsDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstock.service.BeerExportService;
+import one.digitalinnovation.beerstock.service.BeerImportService;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.stats.LowStockIndex;
+import one.digitalinnovation.beerstock.stats.StockAggregates;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/beers")
+@Profile("!reactive")
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    public static final String CSV_VALUE = "text/csv";
+
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    /**
+     * Opens every change feed, so the response is committed before the first change.
+     */
+    static final String CHANGES_COMMENT = "beer changes";
+
+    private static final List<MediaType> BEER_MEDIA_TYPES = Arrays.asList(MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType("application/x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
     private final BeerService beerService;
+    private final BeerExportService beerExportService;
+    private final BeerImportService beerImportService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogPageCache catalogPageCache;
+    private final StockAggregates stockAggregates;
+    private final LowStockIndex lowStockIndex;
+    private final BeerChangeFeed beerChangeFeed;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -35,14 +94,93 @@ public class BeerController implements BeerControllerDocs {
         return beerService.createBeer(beerDTO);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<BeerDTO> createBeers(@RequestBody @Valid BeerBatchDTO beerBatchDTO) throws BeerAlreadyRegisteredException {
+        return beerService.createBeers(beerBatchDTO.getBeers());
+    }
+
     @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
+    public BeerDTO findByName(@PathVariable String name, WebRequest webRequest) throws BeerNotFoundException {
+        if (checkNotModified(webRequest, catalogVersion.beerETag(name).orElse(null))) {
+            return null;
+        }
         return beerService.findByName(name);
     }
 
     @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    public ResponseEntity<?> listBeers(@RequestParam(required = false) Long after,
+                                       @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit,
+                                       @RequestParam(required = false) BeerType type,
+                                       @RequestParam(required = false) String brand,
+                                       WebRequest webRequest) {
+        long version = catalogVersion.version();
+        boolean unfiltered = type == null && brand == null;
+        if (checkNotModified(webRequest, catalogVersion.catalogETag(version), unfiltered)) {
+            return null;
+        }
+        if (unfiltered && prefersJson(webRequest)) {
+            int pageSize = Math.min(Math.max(limit, 1), BeerService.MAX_PAGE_SIZE);
+            SerializedPage page = catalogPageCache.getPage(version, after, pageSize,
+                    () -> beerService.listAll(after, pageSize, null, null));
+            ResponseEntity.BodyBuilder response = withNextCursor(ResponseEntity.ok(), page.getNextCursor())
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (acceptsGzip(webRequest)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.getGzip());
+            }
+            return response.body(page.getJson());
+        }
+        BeerPageDTO beerPage = beerService.listAll(after, limit, type, brand);
+        return withNextCursor(ResponseEntity.ok(), beerPage.getNextCursor()).body(beerPage.getBeers());
+    }
+
+    @GetMapping("/search")
+    public List<BeerDTO> searchBeers(@RequestParam("q") String query,
+                                     @RequestParam(required = false) BeerType type,
+                                     @RequestParam(defaultValue = "" + BeerService.DEFAULT_SEARCH_LIMIT) int limit) {
+        return beerService.search(query, type, limit);
+    }
+
+    @GetMapping("/low-stock")
+    public List<BeerDTO> lowStockBeers(@RequestParam double ratio,
+                                       @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit) {
+        return lowStockIndex.findAtOrBelow(ratio, Math.min(Math.max(limit, 1), BeerService.MAX_PAGE_SIZE));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter beerChanges(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) throws IOException {
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().comment(CHANGES_COMMENT));
+        BeerChangeFeed.Subscription subscription = beerChangeFeed.subscribe(lastEventId, new SseEmitterSubscriber(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    @GetMapping("/stats")
+    public StockStatsDTO stockStats(WebRequest webRequest) {
+        if (checkNotModified(webRequest, catalogVersion.catalogETag())) {
+            return null;
+        }
+        return stockAggregates.getStats();
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBeers() {
+        StreamingResponseBody beers = beerExportService::exportTo;
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(beers);
+    }
+
+    @PostMapping(value = "/import", consumes = NDJSON_VALUE)
+    public BeerImportResultDTO importNdjson(InputStream beers) throws IOException {
+        return beerImportService.importNdjson(beers);
+    }
+
+    @PostMapping(value = "/import", consumes = CSV_VALUE)
+    public BeerImportResultDTO importCsv(InputStream beers) throws IOException {
+        return beerImportService.importCsv(beers);
     }
 
     @DeleteMapping("/{id}")
@@ -53,13 +191,131 @@ public class BeerController implements BeerControllerDocs {
 
     @PatchMapping("/{id}/increment")
     public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO)
-            throws BeerNotFoundException, BeerStockExceededException {
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         return beerService.increment(id, quantityDTO.getQuantity());
     }
 
     @PatchMapping("/{id}/decrement")
     public BeerDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO)
-            throws BeerNotFoundException, BeerStockExceededException {
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         return beerService.decrement(id, quantityDTO.getQuantity());
     }
+
+    @PostMapping("/stock:batch")
+    public List<StockMoveResultDTO> applyStockMoves(@RequestBody @Valid StockBatchDTO stockBatchDTO) {
+        return beerService.applyStockMoves(stockBatchDTO.getMoves());
+    }
+
+    @PutMapping("/{id}/stock-shards")
+    public BeerDTO shardStock(@PathVariable Long id, @RequestBody @Valid StockShardsDTO stockShardsDTO) throws BeerNotFoundException {
+        return beerService.shardStock(id, stockShardsDTO.getShards());
+    }
+
+    @DeleteMapping("/{id}/stock-shards")
+    public BeerDTO unshardStock(@PathVariable Long id) throws BeerNotFoundException {
+        return beerService.unshardStock(id);
+    }
+
+    private static ResponseEntity.BodyBuilder withNextCursor(ResponseEntity.BodyBuilder response, Long nextCursor) {
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor));
+        }
+        return response;
+    }
+
+    private static boolean checkNotModified(WebRequest webRequest, String eTag) {
+        return checkNotModified(webRequest, eTag, false);
+    }
+
+    /**
+     * Checks the ETag of the representation content negotiation would pick for this request, and tells
+     * caches that the response varies with its Accept header. When gzipped JSON is offered, the
+     * gzip body has an ETag of its own and the response varies with Accept-Encoding too. A missing ETag
+     * never matches.
+     */
+    private static boolean checkNotModified(WebRequest webRequest, String eTag, boolean gzipOffered) {
+        HttpServletResponse response = ((NativeWebRequest) webRequest).getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, gzipOffered
+                    ? HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING
+                    : HttpHeaders.ACCEPT);
+        }
+        if (eTag == null) {
+            return false;
+        }
+        MediaType mediaType = negotiatedMediaType(webRequest);
+        if (MediaType.APPLICATION_JSON.equals(mediaType) && gzipOffered && acceptsGzip(webRequest)) {
+            return webRequest.checkNotModified(eTag.substring(0, eTag.length() - 1) + "-gzip\"");
+        }
+        if (mediaType == null || mediaType.equals(MediaType.APPLICATION_JSON)) {
+            return webRequest.checkNotModified(eTag);
+        }
+        return webRequest.checkNotModified(eTag.substring(0, eTag.length() - 1) + '-' + mediaType.getSubtype() + '"');
+    }
+
+    private static boolean prefersJson(WebRequest webRequest) {
+        return MediaType.APPLICATION_JSON.equals(negotiatedMediaType(webRequest));
+    }
+
+    /**
+     * The media type content negotiation would pick for this request among the ones beers are written in,
+     * or {@code null} when none is accepted. The JSON converter comes first, so it wins any tie.
+     */
+    private static MediaType negotiatedMediaType(WebRequest webRequest) {
+        String[] accept = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(Arrays.asList(accept));
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType beerType : BEER_MEDIA_TYPES) {
+                if (acceptedType.isCompatibleWith(beerType)) {
+                    return beerType;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether Accept-Encoding gives gzip a quality above zero, by name or else through {@code *}.
+     */
+    private static boolean acceptsGzip(WebRequest webRequest) {
+        String[] acceptEncoding = webRequest.getHeaderValues(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcardAccepted = false;
+        for (String coding : StringUtils.tokenizeToStringArray(String.join(",", acceptEncoding), ",")) {
+            String[] parameters = StringUtils.tokenizeToStringArray(coding, ";");
+            if (parameters.length == 0) {
+                continue;
+            }
+            if (parameters[0].equalsIgnoreCase("gzip") || parameters[0].equalsIgnoreCase("x-gzip")) {
+                return quality(parameters) > 0;
+            }
+            if (parameters[0].equals("*")) {
+                wildcardAccepted = quality(parameters) > 0;
+            }
+        }
+        return wildcardAccepted;
+    }
+
+    /**
+     * The {@code q} parameter of an Accept-Encoding coding, 1 when it has none and 0 when it is malformed.
+     */
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String[] parameter = StringUtils.tokenizeToStringArray(parameters[i], "=");
+            if (parameter.length == 2 && parameter[0].equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter[1]);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
 }
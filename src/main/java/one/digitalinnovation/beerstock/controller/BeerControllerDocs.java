@@ -4,15 +4,28 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportResultDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.StockBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveResultDTO;
+import one.digitalinnovation.beerstock.dto.StockShardsDTO;
+import one.digitalinnovation.beerstock.dto.StockStatsDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Api("Manages beer stock")
@@ -25,18 +38,71 @@ public interface BeerControllerDocs {
     })
     BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
 
+    @ApiOperation(value = "Creates a batch of beers in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success beers creation"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value or beer names already registered.")
+    })
+    List<BeerDTO> createBeers(BeerBatchDTO beerBatchDTO) throws BeerAlreadyRegisteredException;
+
     @ApiOperation(value = "Returns beer found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success beer found in the system"),
+            @ApiResponse(code = 304, message = "Beer not changed since the ETag given in If-None-Match"),
             @ApiResponse(code = 404, message = "Beer with given name not found.")
     })
-    BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
+    BeerDTO findByName(@PathVariable String name, WebRequest webRequest) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Returns a page of beers ordered by id, optionally filtered by type and brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of beers; the X-Next-Cursor header holds the cursor of the next page",
+                    response = BeerDTO.class, responseContainer = "List"),
+            @ApiResponse(code = 304, message = "Catalog not changed since the ETag given in If-None-Match"),
+    })
+    ResponseEntity<?> listBeers(Long after, int limit, BeerType type, String brand, WebRequest webRequest);
+
+    @ApiOperation(value = "Type-ahead search over beer names and brands, tolerating one typo, optionally filtered by type")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beers whose words start with every word of the query"),
+    })
+    List<BeerDTO> searchBeers(String query, BeerType type, int limit);
+
+    @ApiOperation(value = "Returns the beers whose stock is at or below a ratio of their max, emptiest first")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beers ordered by quantity / max, then by id"),
+    })
+    List<BeerDTO> lowStockBeers(double ratio, int limit);
+
+    @ApiOperation(value = "Streams every beer creation, deletion and stock move as server-sent events, resuming after Last-Event-ID")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "change events, or a resync event when changes were skipped and the catalog has to be loaded again"),
+    })
+    SseEmitter beerChanges(String lastEventId) throws IOException;
+
+    @ApiOperation(value = "Returns the beers, units and capacity in stock, in total, per type and per brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock totals kept up to date with every change"),
+            @ApiResponse(code = 304, message = "Catalog not changed since the ETag given in If-None-Match"),
+    })
+    StockStatsDTO stockStats(WebRequest webRequest);
 
-    @ApiOperation(value = "Returns a list of all beers registered in the system")
+    @ApiOperation(value = "Streams every beer registered in the system as newline-delimited JSON")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(code = 200, message = "One beer per line, ordered by id"),
     })
-    List<BeerDTO> listBeers();
+    ResponseEntity<StreamingResponseBody> exportBeers();
+
+    @ApiOperation(value = "Imports beers from a newline-delimited JSON upload, committing them in chunks")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Rows imported and rejected, with the reason of each rejected row"),
+    })
+    BeerImportResultDTO importNdjson(InputStream beers) throws IOException;
+
+    @ApiOperation(value = "Imports beers from a CSV upload with a header row, committing them in chunks")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Rows imported and rejected, with the reason of each rejected row"),
+    })
+    BeerImportResultDTO importCsv(InputStream beers) throws IOException;
 
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
@@ -44,4 +110,26 @@ public interface BeerControllerDocs {
             @ApiResponse(code = 404, message = "Beer with given id not found.")
     })
     void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Applies a batch of stock moves in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Result of each stock move, in the order they were sent"),
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+    })
+    List<StockMoveResultDTO> applyStockMoves(StockBatchDTO stockBatchDTO);
+
+    @ApiOperation(value = "Splits the stock of a beer across sub-counter rows for hot write traffic")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beer with its stock now summed from the shards"),
+            @ApiResponse(code = 400, message = "Missing or out of range shard count."),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    BeerDTO shardStock(@PathVariable Long id, StockShardsDTO stockShardsDTO) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Folds the stock shards of a beer back into its row")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beer with its stock back in a single row"),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    BeerDTO unshardStock(@PathVariable Long id) throws BeerNotFoundException;
 }
@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstock.feed.ChangeFeedEvent;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.FluxSink;
+
+import java.util.List;
+
+/**
+ * Emits the change feed to a reactive response, no more events than the connection has requested.
+ */
+class FluxSinkSubscriber implements BeerChangeFeed.Subscriber {
+
+    private final FluxSink<ServerSentEvent<String>> sink;
+
+    FluxSinkSubscriber(FluxSink<ServerSentEvent<String>> sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public long demand() {
+        return sink.requestedFromDownstream();
+    }
+
+    @Override
+    public void send(List<ChangeFeedEvent> events) {
+        for (ChangeFeedEvent event : events) {
+            sink.next(ServerSentEvent.builder(event.getData())
+                    .id(event.getId())
+                    .event(event.getName())
+                    .build());
+        }
+    }
+}
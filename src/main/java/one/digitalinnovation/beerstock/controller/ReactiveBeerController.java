@@ -0,0 +1,160 @@
+package one.digitalinnovation.beerstock.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.cache.CatalogVersion;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.StockStatsDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.service.ReactiveBeerService;
+import one.digitalinnovation.beerstock.stats.LowStockIndex;
+import one.digitalinnovation.beerstock.stats.StockAggregates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.Optional;
+
+import static one.digitalinnovation.beerstock.controller.BeerController.CHANGES_COMMENT;
+import static one.digitalinnovation.beerstock.controller.BeerController.LAST_EVENT_ID_HEADER;
+import static one.digitalinnovation.beerstock.controller.BeerController.NDJSON;
+import static one.digitalinnovation.beerstock.controller.BeerController.NEXT_CURSOR_HEADER;
+
+/**
+ * The beer API served by WebFlux under the {@code reactive} profile. Uploads and stock batches are only
+ * served by {@link BeerController}.
+ */
+@RestController
+@RequestMapping("/api/v1/beers")
+@Profile("reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerController {
+
+    private final ReactiveBeerService beerService;
+    private final CatalogVersion catalogVersion;
+    private final StockAggregates stockAggregates;
+    private final LowStockIndex lowStockIndex;
+    private final BeerChangeFeed beerChangeFeed;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
+        return beerService.createBeer(beerDTO);
+    }
+
+    @GetMapping("/{name}")
+    public Mono<BeerDTO> findByName(@PathVariable String name, ServerWebExchange exchange) {
+        Optional<String> eTag = catalogVersion.beerETag(name);
+        if (eTag.isPresent() && exchange.checkNotModified(eTag.get())) {
+            return Mono.empty();
+        }
+        return beerService.findByName(name);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<BeerDTO>>> listBeers(@RequestParam(required = false) Long after,
+                                                         @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit,
+                                                         @RequestParam(required = false) BeerType type,
+                                                         @RequestParam(required = false) String brand,
+                                                         ServerWebExchange exchange) {
+        if (exchange.checkNotModified(catalogVersion.catalogETag())) {
+            return Mono.empty();
+        }
+        return beerService.listAll(after, limit, type, brand)
+                .map(beerPage -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (beerPage.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(beerPage.getNextCursor()));
+                    }
+                    return response.body(beerPage.getBeers());
+                });
+    }
+
+    @GetMapping("/search")
+    public Flux<BeerDTO> searchBeers(@RequestParam("q") String query,
+                                     @RequestParam(required = false) BeerType type,
+                                     @RequestParam(defaultValue = "" + BeerService.DEFAULT_SEARCH_LIMIT) int limit) {
+        return beerService.search(query, type, limit);
+    }
+
+    @GetMapping("/low-stock")
+    public Flux<BeerDTO> lowStockBeers(@RequestParam double ratio,
+                                       @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit) {
+        return Flux.fromIterable(lowStockIndex.findAtOrBelow(ratio, Math.min(Math.max(limit, 1), BeerService.MAX_PAGE_SIZE)));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> beerChanges(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        Flux<ServerSentEvent<String>> changes = Flux.create(sink -> {
+            BeerChangeFeed.Subscription subscription = beerChangeFeed.subscribe(lastEventId, new FluxSinkSubscriber(sink));
+            sink.onRequest(n -> subscription.request());
+            sink.onDispose(subscription::cancel);
+        });
+        return changes.startWith(ServerSentEvent.<String>builder().comment(CHANGES_COMMENT).build());
+    }
+
+    @GetMapping("/stats")
+    public Mono<StockStatsDTO> stockStats(ServerWebExchange exchange) {
+        if (exchange.checkNotModified(catalogVersion.catalogETag())) {
+            return Mono.empty();
+        }
+        return Mono.just(stockAggregates.getStats());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<Flux<String>> exportBeers() {
+        ObjectWriter beerWriter = objectMapper.writerFor(BeerDTO.class);
+        Flux<String> beers = beerService.exportAll()
+                .handle((beerDTO, sink) -> {
+                    try {
+                        sink.next(beerWriter.writeValueAsString(beerDTO) + '\n');
+                    } catch (JsonProcessingException e) {
+                        sink.error(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(beers);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return beerService.deleteById(id);
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<BeerDTO> increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.increment(id, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public Mono<BeerDTO> decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.decrement(id, quantityDTO.getQuantity());
+    }
+}
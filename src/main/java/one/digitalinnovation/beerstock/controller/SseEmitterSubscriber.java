@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstock.feed.ChangeFeedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the change feed to a servlet response. Writes block while the connection is full, so the emitter
+ * always takes a whole batch; the response is completed when the feed gives up on a blocked write.
+ */
+class SseEmitterSubscriber implements BeerChangeFeed.Subscriber {
+
+    private final SseEmitter emitter;
+
+    SseEmitterSubscriber(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public long demand() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void send(List<ChangeFeedEvent> events) throws IOException {
+        for (ChangeFeedEvent event : events) {
+            emitter.send(SseEmitter.event()
+                    .id(event.getId())
+                    .name(event.getName())
+                    .data(event.getData()));
+        }
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,272 @@
+package one.digitalinnovation.beerstock.counter;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the stock of hot beers in memory so stock moves never touch the beer row.
+ * Each counter is a CAS loop bounded by zero and the beer max; dirty counters are written back
+ * periodically and once more on shutdown. Writes of a counter are serialized on the counter itself, never
+ * inside the map, so they only wait for each other. A counter is retired only once its latest quantity is
+ * written, and a move that still holds a retired counter drops it and looks the beer up again. A move made
+ * inside a transaction is undone when the transaction rolls back; an undo that would take the stock out
+ * of its bounds is not applied and fails the completion of the transaction, which is logged.
+ */
+@Component
+public class FastStockCounters {
+
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final boolean enabled;
+    private final Set<Long> hotBeerIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+
+    public FastStockCounters(BeerRepository beerRepository,
+                             @Value("${beerstock.stock.fast-counters.enabled:false}") boolean enabled,
+                             @Value("${beerstock.stock.fast-counters.hot-beer-ids:}") Set<Long> hotBeerIds) {
+        this.beerRepository = beerRepository;
+        this.enabled = enabled;
+        if (enabled) {
+            this.hotBeerIds.addAll(hotBeerIds);
+        }
+    }
+
+    public boolean isHot(Long id) {
+        return enabled && hotBeerIds.contains(id);
+    }
+
+    public void markHot(Long id) {
+        if (!enabled) {
+            throw new IllegalStateException("Fast stock counters are disabled");
+        }
+        hotBeerIds.add(id);
+    }
+
+    /**
+     * Writes the counter of the beer back and drops it. When the write fails the beer stays hot.
+     */
+    public void unmarkHot(Long id) {
+        hotBeerIds.remove(id);
+        StockCounter counter = counters.get(id);
+        if (counter == null) {
+            return;
+        }
+        try {
+            synchronized (counter) {
+                int quantity;
+                do {
+                    quantity = counter.quantity.get();
+                    if (quantity == RETIRED) {
+                        return;
+                    }
+                    if (beerRepository.updateQuantity(id, quantity) == 0) {
+                        retire(id, counter);
+                        return;
+                    }
+                } while (!counter.quantity.compareAndSet(quantity, RETIRED));
+                counters.remove(id, counter);
+            }
+        } catch (RuntimeException e) {
+            hotBeerIds.add(id);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the stock of a hot beer, or returns an empty result when the beer is no longer hot and the
+     * move has to be made on the beer row.
+     */
+    public Optional<BeerDTO> move(Long id, int quantityDelta) throws BeerNotFoundException, BeerStockExceededException {
+        while (true) {
+            StockCounter counter = counterOf(id);
+            if (counter == null) {
+                return Optional.empty();
+            }
+            int current;
+            int expected;
+            do {
+                current = counter.quantity.get();
+                expected = current + quantityDelta;
+                if (current != RETIRED && (expected < 0 || expected > counter.beer.getMax())) {
+                    throw new BeerStockExceededException(id, Math.abs(quantityDelta));
+                }
+            } while (current != RETIRED && !counter.quantity.compareAndSet(current, expected));
+            if (current == RETIRED) {
+                counters.remove(id, counter);
+            } else {
+                counter.dirty.set(true);
+                undoOnRollback(id, quantityDelta);
+                return Optional.of(counter.beer.toBuilder().quantity(expected).build());
+            }
+        }
+    }
+
+    public BeerDTO overlay(BeerDTO beerDTO) {
+        StockCounter counter = counters.get(beerDTO.getId());
+        if (counter == null) {
+            return beerDTO;
+        }
+        int quantity = counter.quantity.get();
+        return quantity == RETIRED ? beerDTO : beerDTO.toBuilder().quantity(quantity).build();
+    }
+
+    /**
+     * Writes every dirty counter back. A counter whose write fails stays dirty, and the first failure is
+     * thrown once the other counters are written.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.stock.fast-counters.flush-interval:1000}")
+    public void flush() {
+        RuntimeException failure = null;
+        for (Map.Entry<Long, StockCounter> entry : counters.entrySet()) {
+            try {
+                flush(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        if (beerChangeEvent.getType() == BeerChangeType.DELETED) {
+            Long id = beerChangeEvent.getBeer().getId();
+            StockCounter counter = counters.get(id);
+            if (counter != null) {
+                retire(id, counter);
+            }
+        }
+    }
+
+    private StockCounter counterOf(Long id) throws BeerNotFoundException {
+        StockCounter counter = counters.get(id);
+        if (counter != null || !isHot(id)) {
+            return counter;
+        }
+        StockCounter loaded = load(id);
+        if (loaded == null) {
+            throw new BeerNotFoundException(id);
+        }
+        counter = counters.putIfAbsent(id, loaded);
+        return counter == null ? loaded : counter;
+    }
+
+    private void flush(Long id, StockCounter counter) {
+        synchronized (counter) {
+            if (!counter.dirty.getAndSet(false)) {
+                return;
+            }
+            int quantity = counter.quantity.get();
+            if (quantity == RETIRED) {
+                return;
+            }
+            try {
+                if (beerRepository.updateQuantity(id, quantity) == 0) {
+                    retire(id, counter);
+                }
+            } catch (RuntimeException e) {
+                counter.dirty.set(true);
+                throw e;
+            }
+        }
+    }
+
+    private void retire(Long id, StockCounter counter) {
+        counter.quantity.set(RETIRED);
+        counters.remove(id, counter);
+    }
+
+    private void undoOnRollback(Long id, int quantityDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo(id, quantityDelta);
+                }
+            }
+        });
+    }
+
+    private void undo(Long id, int quantityDelta) {
+        StockCounter counter = counters.get(id);
+        while (counter != null) {
+            int current = counter.quantity.get();
+            int undone = current - quantityDelta;
+            if (current == RETIRED) {
+                counters.remove(id, counter);
+                counter = counters.get(id);
+            } else if (undone < 0 || undone > counter.beer.getMax()) {
+                throw undoFailure(id, quantityDelta);
+            } else if (counter.quantity.compareAndSet(current, undone)) {
+                counter.dirty.set(true);
+                return;
+            }
+        }
+        int updatedRows = quantityDelta >= 0
+                ? beerRepository.decrementQuantity(id, quantityDelta)
+                : beerRepository.incrementQuantity(id, -quantityDelta);
+        if (updatedRows == 0) {
+            throw undoFailure(id, quantityDelta);
+        }
+    }
+
+    private static IllegalStateException undoFailure(Long id, int quantityDelta) {
+        return new IllegalStateException(String.format(
+                "Rolled back stock move of %d on beer with ID %s was not undone: it would take the stock out of its bounds",
+                quantityDelta, id));
+    }
+
+    private StockCounter load(Long id) {
+        return beerRepository.findById(id)
+                .map(beerMapper::toDTO)
+                .map(StockCounter::new)
+                .orElse(null);
+    }
+
+    private static class StockCounter {
+
+        private final BeerDTO beer;
+        private final AtomicInteger quantity;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        StockCounter(BeerDTO beer) {
+            this.beer = beer;
+            this.quantity = new AtomicInteger(beer.getQuantity());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package one.digitalinnovation.beerstock.counter;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.BeerStockShard;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockShardRepository;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the stock of a beer across sub-counter rows, so concurrent moves on it lock different rows.
+ * The max is split along with the quantity: no shard goes below zero or above its own capacity, so the
+ * sum of the shards stays between zero and the beer max. A move tries a random shard and then its
+ * neighbours; only a move that no single shard can take locks every shard and is spread across them.
+ * A guarded update that waited for a shard and then missed its guard may keep that shard locked, so every
+ * single-shard attempt runs under a savepoint and a miss rolls back to it. Sharding again and unsharding
+ * lock the beer row and then the shards before summing them, so no move commits in between. A locking
+ * read that waited for shards being replaced may find none, so a move that finds no shards locks the beer
+ * row, which every change of the shards holds, and looks again before it moves the beer row itself.
+ */
+@Component
+public class ShardedStock {
+
+    private final BeerStockShardRepository shardRepository;
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public ShardedStock(BeerStockShardRepository shardRepository, BeerRepository beerRepository, EntityManager entityManager) {
+        this.shardRepository = shardRepository;
+        this.beerRepository = beerRepository;
+        this.entityManager = entityManager;
+    }
+
+    @PostConstruct
+    public void loadShardedBeers() {
+        shardRepository.findAll()
+                .forEach(shard -> shardCounts.merge(shard.getBeerId(), 1, Integer::sum));
+    }
+
+    public boolean isSharded(Long id) {
+        return shardCounts.containsKey(id);
+    }
+
+    @Transactional
+    public BeerDTO shard(Long id, int shards) throws BeerNotFoundException {
+        Beer beer = beerRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        List<BeerStockShard> currentShards = lockShards(id);
+        int quantity = currentShards.isEmpty() ? beer.getQuantity() : sumQuantity(currentShards);
+        shardRepository.deleteByBeerId(id);
+        List<BeerStockShard> stockShards = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            stockShards.add(new BeerStockShard(id, shard, split(quantity, shards, shard), split(beer.getMax(), shards, shard)));
+        }
+        shardRepository.saveAll(stockShards);
+        beer.setQuantity(quantity);
+        afterCommit(() -> shardCounts.put(id, shards));
+        return beerMapper.toDTO(beer);
+    }
+
+    @Transactional
+    public BeerDTO unshard(Long id) throws BeerNotFoundException {
+        Beer beer = beerRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        List<BeerStockShard> currentShards = lockShards(id);
+        if (!currentShards.isEmpty()) {
+            beer.setQuantity(sumQuantity(currentShards));
+            removeShards(id);
+        }
+        return beerMapper.toDTO(beer);
+    }
+
+    @Transactional
+    public void removeShards(Long id) {
+        shardRepository.deleteByBeerId(id);
+        afterCommit(() -> shardCounts.remove(id));
+    }
+
+    @Transactional
+    public BeerDTO move(Long id, int quantityDelta) throws BeerNotFoundException, BeerStockExceededException {
+        Beer beer = beerRepository.findById(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        int shards = shardCounts.getOrDefault(id, 0);
+        int firstShard = shards == 0 ? 0 : ThreadLocalRandom.current().nextInt(shards);
+        boolean moved = false;
+        for (int i = 0; i < shards && !moved; i++) {
+            moved = moveShard(id, (firstShard + i) % shards, quantityDelta);
+        }
+        if (!moved && !spread(id, quantityDelta, firstShard, shardRepository.findByBeerIdOrderByShard(id))) {
+            entityManager.refresh(beer, LockModeType.PESSIMISTIC_WRITE);
+            if (!spread(id, quantityDelta, firstShard, shardRepository.findByBeerIdOrderByShard(id))) {
+                return moveUnsharded(beer, quantityDelta);
+            }
+        }
+        return beerMapper.toDTO(beer).toBuilder()
+                .quantity((int) shardRepository.sumQuantity(id))
+                .build();
+    }
+
+    public BeerDTO overlay(BeerDTO beerDTO) {
+        if (!isSharded(beerDTO.getId())) {
+            return beerDTO;
+        }
+        return beerDTO.toBuilder()
+                .quantity((int) shardRepository.sumQuantity(beerDTO.getId()))
+                .build();
+    }
+
+    /**
+     * Overlays a page of beers, summing the shards of all the sharded ones in a single query.
+     */
+    public List<BeerDTO> overlay(List<BeerDTO> beerDTOs) {
+        Set<Long> shardedIds = beerDTOs.stream()
+                .map(BeerDTO::getId)
+                .filter(this::isSharded)
+                .collect(Collectors.toSet());
+        if (shardedIds.isEmpty()) {
+            return beerDTOs;
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Object[] row : shardRepository.sumQuantities(shardedIds)) {
+            quantities.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return beerDTOs.stream()
+                .map(beerDTO -> quantities.containsKey(beerDTO.getId())
+                        ? beerDTO.toBuilder().quantity(quantities.get(beerDTO.getId())).build()
+                        : beerDTO)
+                .collect(Collectors.toList());
+    }
+
+    private boolean moveShard(Long id, int shard, int quantityDelta) {
+        Session session = entityManager.unwrap(Session.class);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        if (shardRepository.moveQuantity(id, shard, quantityDelta) == 1) {
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+            return true;
+        }
+        session.doWork(connection -> connection.rollback(savepoint));
+        return false;
+    }
+
+    /**
+     * Spreads the move across the locked shards, or returns {@code false} when there are none.
+     */
+    private boolean spread(Long id, int quantityDelta, int firstShard, List<BeerStockShard> stockShards)
+            throws BeerStockExceededException {
+        if (stockShards.isEmpty()) {
+            return false;
+        }
+        int quantity = stockShards.stream().mapToInt(BeerStockShard::getQuantity).sum();
+        int capacity = stockShards.stream().mapToInt(BeerStockShard::getCapacity).sum();
+        if (quantity + quantityDelta < 0 || quantity + quantityDelta > capacity) {
+            throw new BeerStockExceededException(id, Math.abs(quantityDelta));
+        }
+        int remaining = quantityDelta;
+        for (int i = 0; i < stockShards.size() && remaining != 0; i++) {
+            BeerStockShard stockShard = stockShards.get((firstShard + i) % stockShards.size());
+            int shardDelta = remaining > 0
+                    ? Math.min(remaining, stockShard.getCapacity() - stockShard.getQuantity())
+                    : Math.max(remaining, -stockShard.getQuantity());
+            stockShard.setQuantity(stockShard.getQuantity() + shardDelta);
+            remaining -= shardDelta;
+        }
+        return true;
+    }
+
+    private BeerDTO moveUnsharded(Beer beer, int quantityDelta) throws BeerStockExceededException {
+        int quantity = beer.getQuantity() + quantityDelta;
+        if (quantity < 0 || quantity > beer.getMax()) {
+            throw new BeerStockExceededException(beer.getId(), Math.abs(quantityDelta));
+        }
+        beer.setQuantity(quantity);
+        return beerMapper.toDTO(beer);
+    }
+
+    /**
+     * Locks the current shards of a beer and detaches them, so they can be deleted and written again.
+     */
+    private List<BeerStockShard> lockShards(Long id) {
+        List<BeerStockShard> stockShards = shardRepository.findByBeerIdOrderByShard(id);
+        stockShards.forEach(entityManager::detach);
+        return stockShards;
+    }
+
+    private static int sumQuantity(List<BeerStockShard> stockShards) {
+        return stockShards.stream().mapToInt(BeerStockShard::getQuantity).sum();
+    }
+
+    private static int split(int total, int parts, int part) {
+        return total / parts + (part < total % parts ? 1 : 0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.StockMoveStatus;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMoveResultDTO {
+
+    private Long id;
+
+    private Integer delta;
+
+    private StockMoveStatus status;
+
+    private Integer quantity;
+
+    private String message;
+}
@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.io.Serializable;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(BeerStockShard.ShardId.class)
+public class BeerStockShard {
+
+    @Id
+    private Long beerId;
+
+    @Id
+    private int shard;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShardId implements Serializable {
+
+        private Long beerId;
+
+        private int shard;
+    }
+}
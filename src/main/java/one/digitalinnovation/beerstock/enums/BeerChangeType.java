@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerChangeType {
+
+    CREATED("Created"),
+    DELETED("Deleted"),
+    INCREMENTED("Incremented"),
+    DECREMENTED("Decremented");
+
+    private final String description;
+}
@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockUpdateStrategy {
+
+    ATOMIC("Guarded update statement"),
+    OPTIMISTIC("Version check with retries"),
+    PESSIMISTIC("Row lock with select for update");
+
+    private final String description;
+}
@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstock.event;
+
+import lombok.Value;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+
+/**
+ * Published by {@link one.digitalinnovation.beerstock.service.BeerService} for every change to a beer.
+ * {@code beer} holds the state right after the change (the last known state for deletions) and
+ * {@code quantityDelta} the signed number of units added to or removed from the stock.
+ */
+@Value
+public class BeerChangeEvent {
+
+    BeerChangeType type;
+
+    BeerDTO beer;
+
+    int quantityDelta;
+}
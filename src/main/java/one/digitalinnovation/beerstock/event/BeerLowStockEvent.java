@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.event;
+
+import lombok.Value;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+
+/**
+ * Published by {@link one.digitalinnovation.beerstock.stats.LowStockIndex} when a committed change takes the
+ * stock of a beer from above {@code alertRatio} of its {@code max} to at or below it. {@code beer} holds the
+ * state right after that change.
+ */
+@Value
+public class BeerLowStockEvent {
+
+    BeerDTO beer;
+
+    double alertRatio;
+}
@@ -3,10 +3,16 @@ package one.digitalinnovation.beerstock.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.Collection;
+
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class BeerAlreadyRegisteredException extends Exception{
 
     public BeerAlreadyRegisteredException(String beerName) {
         super(String.format("Beer with name %s already registered in the system.", beerName));
     }
+
+    public BeerAlreadyRegisteredException(Collection<String> beerNames) {
+        super(String.format("Beers with names %s already registered in the system.", String.join(", ", beerNames)));
+    }
 }
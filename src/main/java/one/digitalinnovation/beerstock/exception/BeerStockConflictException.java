@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BeerStockConflictException extends Exception {
+
+    public BeerStockConflictException(Long id, int attempts) {
+        super(String.format("Beer with %s ID was changed concurrently and the stock move failed after %s attempts", id, attempts));
+    }
+}
@@ -0,0 +1,295 @@
+package one.digitalinnovation.beerstock.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import one.digitalinnovation.beerstock.dto.BeerChangeDTO;
+import one.digitalinnovation.beerstock.dto.BeerLowStockDTO;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.event.BeerLowStockEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every committed beer change and low-stock alert, kept in a ring of the latest {@code capacity} changes and fanned out to the
+ * subscribers of the change feed. A change is serialized once and appended without locking; writers only
+ * wake the dispatch threads, which deliver to each subscriber from its own cursor in batches. A subscriber
+ * more than {@code capacity} changes behind, or resuming from an event id of another run, gets a
+ * {@value ChangeFeedEvent#RESYNC} event and continues from the latest change. A subscriber blocked on a
+ * slow connection holds one dispatch thread and never the writers; once a send blocks for longer than
+ * {@code sendTimeout} the subscription is cancelled and the dispatcher gets a thread in place of the blocked
+ * one until the send returns, when the subscriber is closed and may resume from its last event id.
+ */
+@Component
+@Lazy(false)
+public class BeerChangeFeed {
+
+    private final ObjectWriter changeWriter;
+    private final ObjectWriter lowStockWriter;
+    private final ObjectWriter idWriter;
+    private final ChangeRing<ChangeFeedEvent> ring;
+    private final int batchSize;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final ThreadPoolExecutor dispatcher;
+    private final ScheduledExecutorService watchdog;
+    private final long sendTimeoutNanos;
+
+    public BeerChangeFeed(ObjectMapper objectMapper,
+                          @Value("${beerstock.feed.capacity:4096}") int capacity,
+                          @Value("${beerstock.feed.batch-size:256}") int batchSize,
+                          @Value("${beerstock.feed.dispatch-threads:4}") int dispatchThreads,
+                          @Value("${beerstock.feed.send-timeout:10s}") Duration sendTimeout) {
+        this.changeWriter = objectMapper.writerFor(BeerChangeDTO.class);
+        this.lowStockWriter = objectMapper.writerFor(BeerLowStockDTO.class);
+        this.idWriter = objectMapper.writerFor(String.class);
+        this.ring = new ChangeRing<>(capacity);
+        this.batchSize = batchSize;
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "beer-change-feed-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "beer-change-feed-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(sendTimeoutNanos / 2, 1L);
+        watchdog.scheduleAtFixedRate(this::expireBlockedSends, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        append(ChangeFeedEvent.CHANGE, json(changeWriter, new BeerChangeDTO(beerChangeEvent.getType(),
+                beerChangeEvent.getBeer(), beerChangeEvent.getQuantityDelta())));
+    }
+
+    /**
+     * Low-stock alerts are published by a listener of committed changes, so they are appended right away.
+     */
+    @EventListener
+    public void onLowStock(BeerLowStockEvent beerLowStockEvent) {
+        append(ChangeFeedEvent.LOW_STOCK, json(lowStockWriter, new BeerLowStockDTO(beerLowStockEvent.getBeer(),
+                beerLowStockEvent.getAlertRatio())));
+    }
+
+    /**
+     * Subscribes to the changes following {@code lastEventId}, or to the changes from now on when it is
+     * {@code null}. The subscription is delivered to right away and is cancelled when sending to it fails.
+     */
+    public Subscription subscribe(String lastEventId, Subscriber subscriber) {
+        long head = ring.head();
+        Subscription subscription;
+        if (lastEventId == null) {
+            subscription = new Subscription(subscriber, head, false);
+        } else {
+            long lastSequence = sequenceOf(lastEventId);
+            boolean resync = lastSequence < 0 || lastSequence > head;
+            subscription = new Subscription(subscriber, resync ? head : lastSequence, resync);
+        }
+        subscriptions.add(subscription);
+        subscription.request();
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        watchdog.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private void append(String name, String data) {
+        ring.append(sequence -> new ChangeFeedEvent(eventId(sequence), name, data));
+        if (dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchPending.set(false);
+        for (Subscription subscription : subscriptions) {
+            if (ring.hasAfter(subscription.cursor)) {
+                subscription.request();
+            }
+        }
+    }
+
+    private void expireBlockedSends() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            subscription.expireIfBlockedSince(now - sendTimeoutNanos);
+        }
+    }
+
+    private synchronized void resizeDispatcher(int delta) {
+        int size = dispatcher.getMaximumPoolSize() + delta;
+        if (delta > 0) {
+            dispatcher.setMaximumPoolSize(size);
+            dispatcher.setCorePoolSize(size);
+        } else {
+            dispatcher.setCorePoolSize(size);
+            dispatcher.setMaximumPoolSize(size);
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + '-' + sequence;
+    }
+
+    private long sequenceOf(String eventId) {
+        if (!eventId.startsWith(epoch + '-')) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static String json(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Where the events of a subscription are sent, one batch at a time.
+     */
+    public interface Subscriber {
+
+        /**
+         * How many more events the subscriber takes now. Once it takes more again after answering zero, the
+         * subscriber calls {@link Subscription#request()}.
+         */
+        long demand();
+
+        void send(List<ChangeFeedEvent> events) throws IOException;
+
+        /**
+         * Ends the connection once a send that blocked for longer than the send timeout has returned.
+         */
+        default void close() {
+        }
+    }
+
+    public final class Subscription {
+
+        private static final long IDLE = 0L;
+        private static final long EXPIRED = Long.MIN_VALUE;
+
+        private final Subscriber subscriber;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong sendingSince = new AtomicLong(IDLE);
+        private volatile long cursor;
+        private volatile boolean resync;
+        private volatile boolean cancelled;
+
+        private Subscription(Subscriber subscriber, long cursor, boolean resync) {
+            this.subscriber = subscriber;
+            this.cursor = cursor;
+            this.resync = resync;
+        }
+
+        /**
+         * Delivers the pending events on a dispatch thread, unless a delivery is already running.
+         */
+        public void request() {
+            if (!cancelled && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void expireIfBlockedSince(long deadline) {
+            long since = sendingSince.get();
+            if (since != IDLE && since != EXPIRED && since - deadline < 0 && sendingSince.compareAndSet(since, EXPIRED)) {
+                cancel();
+                resizeDispatcher(1);
+            }
+        }
+
+        private void send(List<ChangeFeedEvent> events) throws IOException {
+            sendingSince.set(System.nanoTime() | 1L);
+            try {
+                subscriber.send(events);
+            } finally {
+                if (sendingSince.getAndSet(IDLE) == EXPIRED) {
+                    resizeDispatcher(-1);
+                    subscriber.close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (!cancelled && subscriber.demand() > 0) {
+                    deliver((int) Math.min(subscriber.demand(), batchSize));
+                }
+            } catch (Exception e) {
+                cancel();
+            } finally {
+                draining.set(false);
+            }
+            if (!cancelled && (resync || ring.hasAfter(cursor)) && subscriber.demand() > 0) {
+                request();
+            }
+        }
+
+        private void deliver(int max) throws IOException {
+            if (!resync) {
+                List<ChangeFeedEvent> events = new ArrayList<>(Math.min(max, ring.capacity()));
+                long last = ring.read(cursor, max, events);
+                if (last != ChangeRing.LAPPED) {
+                    if (!events.isEmpty()) {
+                        send(events);
+                        cursor = last;
+                    }
+                    return;
+                }
+                cursor = ring.head();
+            }
+            String id = eventId(cursor);
+            send(Collections.singletonList(new ChangeFeedEvent(id, ChangeFeedEvent.RESYNC, json(idWriter, id))));
+            resync = false;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.feed;
+
+import lombok.Value;
+
+/**
+ * A server-sent event of the change feed, with its JSON data serialized once for every subscriber.
+ * {@value #CHANGE} events carry a {@link one.digitalinnovation.beerstock.dto.BeerChangeDTO} and
+ * {@value #LOW_STOCK} events a {@link one.digitalinnovation.beerstock.dto.BeerLowStockDTO}; a
+ * {@value #RESYNC} event carries its own id and tells the subscriber that changes were skipped and the
+ * catalog has to be loaded again.
+ */
+@Value
+public class ChangeFeedEvent {
+
+    public static final String CHANGE = "change";
+
+    public static final String LOW_STOCK = "low-stock";
+
+    public static final String RESYNC = "resync";
+
+    String id;
+
+    String name;
+
+    String data;
+}
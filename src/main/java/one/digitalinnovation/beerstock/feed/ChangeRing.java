@@ -0,0 +1,90 @@
+package one.digitalinnovation.beerstock.feed;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * The latest values, a fixed number of them, each under the sequence it was appended with. Appending claims
+ * the next sequence and stores into its slot without locking, so writers never wait for each other or for
+ * readers; a reader more than the capacity behind finds its next slot overwritten.
+ */
+class ChangeRing<T> {
+
+    static final long LAPPED = -1L;
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    ChangeRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Stores the value built for the next sequence and returns that sequence. Sequences start at 1.
+     */
+    long append(LongFunction<T> value) {
+        long next = sequence.incrementAndGet();
+        slots.set(index(next), new Slot<>(next, value.apply(next)));
+        return next;
+    }
+
+    /**
+     * The last sequence claimed. Its value may still be on its way to its slot.
+     */
+    long head() {
+        return sequence.get();
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Adds up to {@code max} values following {@code cursor} to {@code values}, stopping at the first one not
+     * stored yet, and returns the sequence of the last value added, {@code cursor} when there was none, or
+     * {@link #LAPPED} when the value following {@code cursor} has been overwritten.
+     */
+    long read(long cursor, int max, List<T> values) {
+        long next = cursor + 1;
+        while (next - cursor <= max) {
+            Slot<T> slot = slots.get(index(next));
+            if (slot == null || slot.sequence < next) {
+                break;
+            }
+            if (slot.sequence > next) {
+                return LAPPED;
+            }
+            values.add(slot.value);
+            next++;
+        }
+        return next - 1;
+    }
+
+    /**
+     * Whether the value following {@code cursor} is stored, or has already been overwritten.
+     */
+    boolean hasAfter(long cursor) {
+        Slot<T> slot = slots.get(index(cursor + 1));
+        return slot != null && slot.sequence > cursor;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private static class Slot<T> {
+
+        private final long sequence;
+        private final T value;
+
+        Slot(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+}
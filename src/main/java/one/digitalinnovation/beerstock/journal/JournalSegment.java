@@ -0,0 +1,196 @@
+package one.digitalinnovation.beerstock.journal;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped, fixed-size file of journal entries, named after the sequence of its first entry.
+ * An entry is its body length, written last so a torn entry reads as the end of the segment, and the CRC-32
+ * of its body, followed by the change type, sequence, beer id and quantity delta; creations also carry the
+ * beer max, type, name and brand. Strings are written char by char, so appending never allocates.
+ */
+public class JournalSegment {
+
+    static final String FILE_PREFIX = "segment-";
+    static final String FILE_SUFFIX = ".journal";
+
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int MOVE_BODY_SIZE = Byte.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int CREATION_BODY_SIZE = MOVE_BODY_SIZE + Integer.BYTES + Byte.BYTES + 2 * Short.BYTES;
+    private static final BeerChangeType[] CHANGE_TYPES = BeerChangeType.values();
+    private static final BeerType[] BEER_TYPES = BeerType.values();
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer body;
+    private final CRC32 checksum = new CRC32();
+    private long lastSequence;
+
+    private JournalSegment(Path path, MappedByteBuffer buffer, long lastSequence) {
+        this.path = path;
+        this.buffer = buffer;
+        this.body = buffer.duplicate();
+        this.lastSequence = lastSequence;
+    }
+
+    public static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = directory.resolve(fileName(FILE_PREFIX, firstSequence, FILE_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            forceDirectory(directory);
+            return new JournalSegment(path, buffer, firstSequence - 1);
+        }
+    }
+
+    /**
+     * Appends the change under the given sequence, or returns {@code false} when it does not fit.
+     */
+    public boolean append(long sequence, BeerChangeEvent beerChangeEvent) {
+        BeerDTO beer = beerChangeEvent.getBeer();
+        boolean creation = beerChangeEvent.getType() == BeerChangeType.CREATED;
+        int bodySize = creation
+                ? CREATION_BODY_SIZE + Character.BYTES * (beer.getName().length() + beer.getBrand().length())
+                : MOVE_BODY_SIZE;
+        int start = buffer.position();
+        if (start + HEADER_SIZE + bodySize > buffer.capacity()) {
+            return false;
+        }
+        buffer.position(start + HEADER_SIZE);
+        buffer.put((byte) beerChangeEvent.getType().ordinal());
+        buffer.putLong(sequence);
+        buffer.putLong(beer.getId());
+        buffer.putInt(beerChangeEvent.getQuantityDelta());
+        if (creation) {
+            buffer.putInt(beer.getMax());
+            buffer.put((byte) beer.getType().ordinal());
+            putString(beer.getName());
+            putString(beer.getBrand());
+        }
+        body.limit(start + HEADER_SIZE + bodySize).position(start + HEADER_SIZE);
+        checksum.reset();
+        checksum.update(body);
+        buffer.putInt(start + Integer.BYTES, (int) checksum.getValue());
+        buffer.putInt(start, bodySize);
+        lastSequence = sequence;
+        return true;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Applies the entries of a segment file newer than {@code afterSequence} to {@code beers} and returns
+     * the sequence of the last entry read, or {@code afterSequence} when there was none. Reading stops at
+     * the first torn or corrupt entry. Moves of beers whose creation is not read yet are summed up in
+     * {@code pendingDeltas}, as listeners of concurrent commits may append them first.
+     */
+    public static long replay(Path path, long afterSequence, Map<Long, BeerDTO> beers, Map<Long, Integer> pendingDeltas) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        long lastSequence = afterSequence;
+        StringBuilder chars = new StringBuilder();
+        CRC32 checksum = new CRC32();
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int bodySize = buffer.getInt();
+            int bodyChecksum = buffer.getInt();
+            if (bodySize <= 0 || bodySize > buffer.remaining()) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(buffer.duplicate().limit(buffer.position() + bodySize));
+            if ((int) checksum.getValue() != bodyChecksum) {
+                break;
+            }
+            BeerChangeType changeType = CHANGE_TYPES[buffer.get()];
+            long sequence = buffer.getLong();
+            long beerId = buffer.getLong();
+            int quantityDelta = buffer.getInt();
+            if (changeType == BeerChangeType.CREATED) {
+                int max = buffer.getInt();
+                BeerType type = BEER_TYPES[buffer.get()];
+                String name = getString(buffer, chars);
+                String brand = getString(buffer, chars);
+                if (sequence > afterSequence) {
+                    Integer pendingDelta = pendingDeltas.remove(beerId);
+                    int quantity = pendingDelta == null ? quantityDelta : quantityDelta + pendingDelta;
+                    beers.put(beerId, new BeerDTO(beerId, name, brand, max, quantity, type));
+                }
+            } else if (sequence > afterSequence) {
+                apply(changeType, beerId, quantityDelta, beers, pendingDeltas);
+            }
+            lastSequence = Math.max(lastSequence, sequence);
+        }
+        return lastSequence;
+    }
+
+    static String fileName(String prefix, long sequence, String suffix) {
+        return String.format("%s%019d%s", prefix, sequence, suffix);
+    }
+
+    static long sequenceOf(Path path, String prefix, String suffix) {
+        String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(prefix.length(), fileName.length() - suffix.length()));
+    }
+
+    /**
+     * Forces the directory entries of files created, renamed or deleted in {@code directory} to disk.
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static void apply(BeerChangeType changeType, long beerId, int quantityDelta,
+                              Map<Long, BeerDTO> beers, Map<Long, Integer> pendingDeltas) {
+        if (changeType == BeerChangeType.DELETED) {
+            beers.remove(beerId);
+            pendingDeltas.remove(beerId);
+            return;
+        }
+        BeerDTO beer = beers.get(beerId);
+        if (beer != null) {
+            beer.setQuantity(beer.getQuantity() + quantityDelta);
+        } else {
+            pendingDeltas.merge(beerId, quantityDelta, Integer::sum);
+        }
+    }
+
+    private void putString(String value) {
+        buffer.putShort((short) value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer.putChar(value.charAt(i));
+        }
+    }
+
+    private static String getString(MappedByteBuffer buffer, StringBuilder chars) {
+        chars.setLength(0);
+        for (int length = buffer.getShort(); length > 0; length--) {
+            chars.append(buffer.getChar());
+        }
+        return chars.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package one.digitalinnovation.beerstock.journal;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Every beer as of a journal sequence, in one file named after that sequence, followed by the moves of
+ * beers whose creation came later in the journal. Snapshots are written to a temporary file, forced to disk
+ * and moved into place, so a crash never leaves a partial one behind.
+ */
+public class JournalSnapshot {
+
+    static final String FILE_PREFIX = "snapshot-";
+    static final String FILE_SUFFIX = ".snapshot";
+
+    private static final BeerType[] BEER_TYPES = BeerType.values();
+
+    /**
+     * Writes the snapshot and forces the directory, so the files it replaces can be deleted once it returns.
+     */
+    public static Path write(Path directory, long sequence, Collection<BeerDTO> beers, Map<Long, Integer> pendingDeltas) throws IOException {
+        Path path = directory.resolve(JournalSegment.fileName(FILE_PREFIX, sequence, FILE_SUFFIX));
+        Path temporaryPath = directory.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            output.writeLong(sequence);
+            output.writeInt(beers.size());
+            for (BeerDTO beer : beers) {
+                output.writeLong(beer.getId());
+                output.writeUTF(beer.getName());
+                output.writeUTF(beer.getBrand());
+                output.writeInt(beer.getMax());
+                output.writeInt(beer.getQuantity());
+                output.writeByte(beer.getType().ordinal());
+            }
+            output.writeInt(pendingDeltas.size());
+            for (Map.Entry<Long, Integer> pendingDelta : pendingDeltas.entrySet()) {
+                output.writeLong(pendingDelta.getKey());
+                output.writeInt(pendingDelta.getValue());
+            }
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE);
+        JournalSegment.forceDirectory(directory);
+        return path;
+    }
+
+    /**
+     * Puts the beers of a snapshot file into {@code beers}, and the moves of beers not created yet into
+     * {@code pendingDeltas}, and returns the sequence it was taken at.
+     */
+    public static long read(Path path, Map<Long, BeerDTO> beers, Map<Long, Integer> pendingDeltas) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            long sequence = input.readLong();
+            for (int count = input.readInt(); count > 0; count--) {
+                long id = input.readLong();
+                beers.put(id, new BeerDTO(id, input.readUTF(), input.readUTF(), input.readInt(), input.readInt(), BEER_TYPES[input.readByte()]));
+            }
+            for (int count = input.readInt(); count > 0; count--) {
+                pendingDeltas.put(input.readLong(), input.readInt());
+            }
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package one.digitalinnovation.beerstock.journal;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Appends every committed beer change to memory-mapped journal segments. When a segment is full the next
+ * one is started and the closed ones are folded into a new snapshot in the background. On startup the
+ * latest snapshot and the journal tail rebuild the beer table; sharded and hot stock comes back on the
+ * beer row.
+ */
+@Component
+@Lazy(false)
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "beerstock.journal.enabled", havingValue = "true")
+public class StockJournal {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private JournalSegment segment;
+    private long sequence;
+
+    public StockJournal(@Value("${beerstock.journal.directory:journal}") String directory,
+                        @Value("${beerstock.journal.segment-size:64MB}") DataSize segmentSize,
+                        JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        Files.createDirectories(directory);
+        Map<Long, BeerDTO> beers = new TreeMap<>();
+        sequence = compact(Long.MAX_VALUE, beers);
+        load(beers);
+        segment = JournalSegment.create(directory, sequence + 1, segmentSize);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        append(beerChangeEvent);
+    }
+
+    public synchronized long append(BeerChangeEvent beerChangeEvent) {
+        long nextSequence = sequence + 1;
+        if (!segment.append(nextSequence, beerChangeEvent)) {
+            rotate(nextSequence);
+            if (!segment.append(nextSequence, beerChangeEvent)) {
+                throw new IllegalStateException("Journal entry does not fit in an empty segment of " + segmentSize + " bytes");
+            }
+        }
+        sequence = nextSequence;
+        return nextSequence;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.journal.force-interval:1000}")
+    public synchronized void force() {
+        segment.force();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        force();
+        compactor.shutdown();
+        compactor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Rebuilds the beers from the latest snapshot and every segment in {@code directory}, and returns the
+     * sequence of the last change applied.
+     */
+    public static long replay(Path directory, Map<Long, BeerDTO> beers) throws IOException {
+        return replay(directory, Long.MAX_VALUE, beers, new HashMap<>());
+    }
+
+    private void rotate(long nextSequence) {
+        segment.force();
+        try {
+            segment = JournalSegment.create(directory, nextSequence, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        compactor.execute(() -> {
+            try {
+                compact(nextSequence, new TreeMap<>());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Folds the latest snapshot and the segments starting before {@code segmentsBefore} into a new snapshot,
+     * then deletes the files it replaces. Returns the sequence of the new snapshot. Moves still waiting for
+     * their beer's creation are kept for the later segments, unless every segment was folded.
+     */
+    private long compact(long segmentsBefore, Map<Long, BeerDTO> beers) throws IOException {
+        Map<Long, Integer> pendingDeltas = new HashMap<>();
+        long snapshotSequence = replay(directory, segmentsBefore, beers, pendingDeltas);
+        if (segmentsBefore == Long.MAX_VALUE) {
+            pendingDeltas.clear();
+        }
+        Path snapshot = JournalSnapshot.write(directory, snapshotSequence, beers.values(), pendingDeltas);
+        for (Path path : files(directory, JournalSnapshot.FILE_PREFIX, JournalSnapshot.FILE_SUFFIX)) {
+            if (!path.equals(snapshot)) {
+                Files.delete(path);
+            }
+        }
+        for (Path path : files(directory, JournalSegment.FILE_PREFIX, JournalSegment.FILE_SUFFIX)) {
+            if (JournalSegment.sequenceOf(path, JournalSegment.FILE_PREFIX, JournalSegment.FILE_SUFFIX) < segmentsBefore) {
+                Files.delete(path);
+            }
+        }
+        return snapshotSequence;
+    }
+
+    private void load(Map<Long, BeerDTO> beers) {
+        if (beers.isEmpty()) {
+            return;
+        }
+        long nextId = Collections.max(beers.keySet()) + 1;
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("insert into beer (id, name, brand, max, quantity, type, version) values (?, ?, ?, ?, ?, ?, 0)",
+                    beers.values(), INSERT_BATCH_SIZE, (statement, beer) -> {
+                        statement.setLong(1, beer.getId());
+                        statement.setString(2, beer.getName());
+                        statement.setString(3, beer.getBrand());
+                        statement.setInt(4, beer.getMax());
+                        statement.setInt(5, beer.getQuantity());
+                        statement.setString(6, beer.getType().name());
+                    });
+            jdbcTemplate.execute("alter sequence beer_seq restart with " + nextId);
+        });
+    }
+
+    /**
+     * Replays the segments in sequence order. A segment that does not start right after the last entry read
+     * follows a torn or corrupt one, so neither it nor any later segment is applied.
+     */
+    private static long replay(Path directory, long segmentsBefore, Map<Long, BeerDTO> beers, Map<Long, Integer> pendingDeltas) throws IOException {
+        List<Path> snapshots = files(directory, JournalSnapshot.FILE_PREFIX, JournalSnapshot.FILE_SUFFIX);
+        long lastSequence = snapshots.isEmpty() ? 0L : JournalSnapshot.read(snapshots.get(snapshots.size() - 1), beers, pendingDeltas);
+        for (Path path : files(directory, JournalSegment.FILE_PREFIX, JournalSegment.FILE_SUFFIX)) {
+            long firstSequence = JournalSegment.sequenceOf(path, JournalSegment.FILE_PREFIX, JournalSegment.FILE_SUFFIX);
+            if (firstSequence >= segmentsBefore || firstSequence > lastSequence + 1) {
+                break;
+            }
+            lastSequence = JournalSegment.replay(path, lastSequence, beers, pendingDeltas);
+        }
+        return lastSequence;
+    }
+
+    private static List<Path> files(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .filter(path -> path.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+public class BeerMetricsAspect {
+
+    public static final String TIMER_NAME = "beerstock.calls";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public BeerMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * one.digitalinnovation.beerstock.controller.BeerController.*(..)) || " +
+            "execution(public * one.digitalinnovation.beerstock.service.BeerService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            String component = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            timer(component, method, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String component, String method, String outcome) {
+        return timers.computeIfAbsent(component + '.' + method + '.' + outcome, key -> Timer.builder(TIMER_NAME)
+                .description("Calls to the beer controller and service")
+                .tag("component", component)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof BeerNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof BeerStockExceededException) {
+            return "stock_exceeded";
+        }
+        if (e instanceof BeerAlreadyRegisteredException) {
+            return "already_registered";
+        }
+        if (e instanceof BeerStockConflictException) {
+            return "conflict";
+        }
+        return "error";
+    }
+}
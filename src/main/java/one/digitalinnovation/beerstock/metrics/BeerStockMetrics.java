@@ -0,0 +1,49 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@Lazy(false)
+public class BeerStockMetrics {
+
+    public static final String UNITS_COUNTER_NAME = "beerstock.stock.units";
+
+    private final Map<BeerType, Counter> unitsAdded = new EnumMap<>(BeerType.class);
+    private final Map<BeerType, Counter> unitsRemoved = new EnumMap<>(BeerType.class);
+
+    public BeerStockMetrics(MeterRegistry meterRegistry) {
+        for (BeerType type : BeerType.values()) {
+            unitsAdded.put(type, unitsCounter(meterRegistry, type, "added"));
+            unitsRemoved.put(type, unitsCounter(meterRegistry, type, "removed"));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        BeerType type = beerChangeEvent.getBeer().getType();
+        if (beerChangeEvent.getType() == BeerChangeType.INCREMENTED) {
+            unitsAdded.get(type).increment(beerChangeEvent.getQuantityDelta());
+        } else if (beerChangeEvent.getType() == BeerChangeType.DECREMENTED) {
+            unitsRemoved.get(type).increment(-beerChangeEvent.getQuantityDelta());
+        }
+    }
+
+    private static Counter unitsCounter(MeterRegistry meterRegistry, BeerType type, String direction) {
+        return Counter.builder(UNITS_COUNTER_NAME)
+                .description("Stock units moved by increments and decrements")
+                .baseUnit("units")
+                .tag("type", type.name())
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stock updates of a beer, one guarded statement each, returning the number of beers updated.
+ */
+public interface BeerQuantityRepository {
+
+    @Transactional
+    int incrementQuantity(Long id, int quantity);
+
+    @Transactional
+    int decrementQuantity(Long id, int quantity);
+
+    @Transactional
+    int updateQuantity(Long id, int quantity);
+}
@@ -0,0 +1,78 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * A JPQL bulk update makes Hibernate evict every cached beer and every cached query over the beer table,
+ * so the stock updates run as native statements synchronized on a query space no entity maps. Each one
+ * detaches and evicts only the beer it updated, the eviction again once the transaction completes, so a
+ * read of the beer in between cannot leave its uncommitted or its old quantity cached.
+ */
+public class BeerQuantityRepositoryImpl implements BeerQuantityRepository {
+
+    static final String STOCK_QUERY_SPACE = "beer_stock";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int incrementQuantity(Long id, int quantity) {
+        return update("update beer set quantity = quantity + :quantity, version = version + 1 " +
+                "where id = :id and quantity + :quantity <= max", id, quantity);
+    }
+
+    @Override
+    public int decrementQuantity(Long id, int quantity) {
+        return update("update beer set quantity = quantity - :quantity, version = version + 1 " +
+                "where id = :id and quantity >= :quantity", id, quantity);
+    }
+
+    @Override
+    public int updateQuantity(Long id, int quantity) {
+        return update("update beer set quantity = :quantity, version = version + 1 where id = :id", id, quantity);
+    }
+
+    private int update(String sql, Long id, int quantity) {
+        entityManager.flush();
+        int updatedRows = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("id", id)
+                .setParameter("quantity", quantity)
+                .executeUpdate();
+        detach(id);
+        evict(id);
+        return updatedRows;
+    }
+
+    private void detach(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Beer.class);
+        Object managedBeer = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+        if (managedBeer != null) {
+            entityManager.detach(managedBeer);
+        }
+    }
+
+    private void evict(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(Beer.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Beer.class, id);
+                }
+            });
+        }
+    }
+}
@@ -1,11 +1,66 @@
 package one.digitalinnovation.beerstock.repository;
 
+import one.digitalinnovation.beerstock.dto.BeerDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerQuantityRepository {
 
+    int STREAM_FETCH_SIZE = 1000;
+
+    String SELECT_BEER_DTO = "select new one.digitalinnovation.beerstock.dto.BeerDTO(b.id, b.name, b.brand, b.max, b.quantity, b.type) from Beer b ";
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Beer> findByName(String name);
+
+    @Query("select b.name from Beer b where b.name in :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
+
+    @Query(SELECT_BEER_DTO + "where b.id > :after order by b.id")
+    List<BeerDTO> findBeerDTOsByIdGreaterThan(@Param("after") Long after, Pageable pageable);
+
+    @Query(SELECT_BEER_DTO + "where b.type = :type and b.id > :after order by b.id")
+    List<BeerDTO> findBeerDTOsByTypeAndIdGreaterThan(@Param("type") BeerType type, @Param("after") Long after, Pageable pageable);
+
+    @Query(SELECT_BEER_DTO + "where b.brand = :brand and b.id > :after order by b.id")
+    List<BeerDTO> findBeerDTOsByBrandAndIdGreaterThan(@Param("brand") String brand, @Param("after") Long after, Pageable pageable);
+
+    @Query(SELECT_BEER_DTO + "where b.type = :type and b.brand = :brand and b.id > :after order by b.id")
+    List<BeerDTO> findBeerDTOsByTypeAndBrandAndIdGreaterThan(@Param("type") BeerType type, @Param("brand") String brand,
+                                                             @Param("after") Long after, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<Beer> streamAllByOrderByIdAsc();
+
+    /**
+     * Beers, units and capacity per type and brand, as rows of {@code [type, brand, beers, units, capacity]}.
+     * Units of sharded beers are taken from their shards.
+     */
+    @Query(value = "select b.type, b.brand, count(*), sum(coalesce(s.quantity, b.quantity)), sum(b.max) from beer b " +
+            "left join (select beer_id, sum(quantity) as quantity from beer_stock_shard group by beer_id) s on s.beer_id = b.id " +
+            "group by b.type, b.brand", nativeQuery = true)
+    List<Object[]> sumStockByTypeAndBrand();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Beer> findByIdInOrderById(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id = :id")
+    Optional<Beer> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,34 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.BeerStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+public interface BeerStockShardRepository extends JpaRepository<BeerStockShard, BeerStockShard.ShardId> {
+
+    @Modifying
+    @Query("update BeerStockShard s set s.quantity = s.quantity + :delta " +
+            "where s.beerId = :beerId and s.shard = :shard " +
+            "and s.quantity + :delta >= 0 and s.quantity + :delta <= s.capacity")
+    int moveQuantity(@Param("beerId") Long beerId, @Param("shard") int shard, @Param("delta") int delta);
+
+    @Query("select coalesce(sum(s.quantity), 0) from BeerStockShard s where s.beerId = :beerId")
+    long sumQuantity(@Param("beerId") Long beerId);
+
+    @Query("select s.beerId, sum(s.quantity) from BeerStockShard s where s.beerId in :beerIds group by s.beerId")
+    List<Object[]> sumQuantities(@Param("beerIds") Collection<Long> beerIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<BeerStockShard> findByBeerIdOrderByShard(Long beerId);
+
+    @Modifying
+    @Query("delete from BeerStockShard s where s.beerId = :beerId")
+    int deleteByBeerId(@Param("beerId") Long beerId);
+}
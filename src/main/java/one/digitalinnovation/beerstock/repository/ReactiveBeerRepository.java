@@ -0,0 +1,126 @@
+package one.digitalinnovation.beerstock.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Non-blocking access to the beer table for the {@code reactive} profile. Writes go around Hibernate,
+ * so every one of them evicts the beer from the second-level cache the blocking repository reads through.
+ */
+@Repository
+@Profile("reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerRepository {
+
+    private static final String SELECT_BEER = "select id, name, brand, max, quantity, type from beer ";
+
+    private final DatabaseClient databaseClient;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public Mono<BeerDTO> findByName(String name) {
+        return databaseClient.execute(SELECT_BEER + "where name = :name")
+                .bind("name", name)
+                .map(ReactiveBeerRepository::toDTO)
+                .one();
+    }
+
+    public Mono<BeerDTO> findById(Long id) {
+        return databaseClient.execute(SELECT_BEER + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveBeerRepository::toDTO)
+                .one();
+    }
+
+    public Flux<BeerDTO> findPage(long after, BeerType type, String brand, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_BEER).append("where id > :after ");
+        if (type != null) {
+            sql.append("and type = :type ");
+        }
+        if (brand != null) {
+            sql.append("and brand = :brand ");
+        }
+        sql.append("order by id limit :limit");
+        DatabaseClient.GenericExecuteSpec query = databaseClient.execute(sql.toString())
+                .bind("after", after)
+                .bind("limit", limit);
+        if (type != null) {
+            query = query.bind("type", type.name());
+        }
+        if (brand != null) {
+            query = query.bind("brand", brand);
+        }
+        return query.map(ReactiveBeerRepository::toDTO).all();
+    }
+
+    public Flux<BeerDTO> findAllOrderById() {
+        return databaseClient.execute(SELECT_BEER + "order by id")
+                .map(ReactiveBeerRepository::toDTO)
+                .all();
+    }
+
+    public Mono<BeerDTO> insert(BeerDTO beerDTO) {
+        return databaseClient.execute("select next value for beer_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.execute("insert into beer (id, name, brand, max, quantity, type, version) " +
+                                "values (:id, :name, :brand, :max, :quantity, :type, 0)")
+                        .bind("id", id)
+                        .bind("name", beerDTO.getName())
+                        .bind("brand", beerDTO.getBrand())
+                        .bind("max", beerDTO.getMax())
+                        .bind("quantity", beerDTO.getQuantity())
+                        .bind("type", beerDTO.getType().name())
+                        .then()
+                        .thenReturn(beerDTO.toBuilder().id(id).build()));
+    }
+
+    public Mono<Integer> incrementQuantity(Long id, int quantity) {
+        return update("update beer set quantity = quantity + :quantity, version = version + 1 where id = :id and quantity + :quantity <= max", id, quantity);
+    }
+
+    public Mono<Integer> decrementQuantity(Long id, int quantity) {
+        return update("update beer set quantity = quantity - :quantity, version = version + 1 where id = :id and quantity >= :quantity", id, quantity);
+    }
+
+    public Mono<Integer> deleteById(Long id) {
+        return databaseClient.execute("delete from beer where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .doOnSuccess(deletedRows -> evict(id));
+    }
+
+    private Mono<Integer> update(String sql, Long id, int quantity) {
+        return databaseClient.execute(sql)
+                .bind("id", id)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated()
+                .doOnSuccess(updatedRows -> evict(id));
+    }
+
+    private void evict(Long id) {
+        entityManagerFactory.getCache().evict(Beer.class, id);
+    }
+
+    private static BeerDTO toDTO(Row row) {
+        return new BeerDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("brand", String.class),
+                row.get("max", Integer.class),
+                row.get("quantity", Integer.class),
+                BeerType.valueOf(row.get("type", String.class)));
+    }
+}
@@ -0,0 +1,212 @@
+package one.digitalinnovation.beerstock.search;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory type-ahead index over the words of beer names and brands. Every word of every beer is one
+ * entry of a sorted set, so a prefix query is a range scan. When a prefix finds too few beers, the
+ * prefixes one edit away from it are scanned as well. Queries with several words scan the longest one and
+ * keep the beers whose words start with all the others.
+ */
+@Component
+@Lazy(false)
+public class BeerSearchIndex implements SmartInitializingSingleton {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final BeerRepository beerRepository;
+    private final NavigableSet<Term> terms = new ConcurrentSkipListSet<>(Term.ORDER);
+    private final Map<Long, IndexedBeer> beers = new ConcurrentHashMap<>();
+
+    public BeerSearchIndex(BeerRepository beerRepository) {
+        this.beerRepository = beerRepository;
+    }
+
+    /**
+     * Loads the beers once every singleton, including a journal being recovered, is ready, and before the
+     * web server takes requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long after = 0L;
+        List<BeerDTO> page;
+        do {
+            page = beerRepository.findBeerDTOsByIdGreaterThan(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            page.forEach(beerDTO -> add(beerDTO, false));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        BeerDTO beerDTO = beerChangeEvent.getBeer();
+        if (beerChangeEvent.getType() == BeerChangeType.CREATED) {
+            add(beerDTO, true);
+        } else if (beerChangeEvent.getType() == BeerChangeType.DELETED) {
+            remove(beerDTO.getId());
+        } else {
+            beers.computeIfPresent(beerDTO.getId(), (id, indexedBeer) -> new IndexedBeer(indexedBeer.beer.toBuilder()
+                    .quantity(indexedBeer.beer.getQuantity() + beerChangeEvent.getQuantityDelta())
+                    .build(), indexedBeer.words));
+        }
+    }
+
+    public List<BeerDTO> search(String query, BeerType type, int limit) {
+        String[] queryWords = words(query);
+        if (queryWords.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        String scannedWord = Arrays.stream(queryWords).max(Comparator.comparingInt(String::length)).get();
+        Map<Long, BeerDTO> found = new LinkedHashMap<>();
+        scan(scannedWord, scannedWord, queryWords, type, limit, found);
+        if (found.size() < limit && scannedWord.length() >= MIN_FUZZY_LENGTH) {
+            for (String variant : oneEditAway(scannedWord)) {
+                scan(variant, scannedWord, queryWords, type, limit, found);
+                if (found.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    public int size() {
+        return beers.size();
+    }
+
+    private void scan(String prefix, String scannedWord, String[] queryWords, BeerType type, int limit, Map<Long, BeerDTO> found) {
+        for (Term term : terms.tailSet(new Term(prefix, Long.MIN_VALUE))) {
+            if (!term.word.startsWith(prefix) || found.size() >= limit) {
+                return;
+            }
+            IndexedBeer indexedBeer = beers.get(term.beerId);
+            if (indexedBeer != null && (type == null || indexedBeer.beer.getType() == type)
+                    && indexedBeer.startsWithAll(queryWords, scannedWord)) {
+                found.putIfAbsent(term.beerId, indexedBeer.beer);
+            }
+        }
+    }
+
+    private void add(BeerDTO beerDTO, boolean replace) {
+        String[] words = words(beerDTO.getName() + ' ' + beerDTO.getBrand());
+        for (int i = 0; i < words.length; i++) {
+            Term first = terms.ceiling(new Term(words[i], Long.MIN_VALUE));
+            if (first != null && first.word.equals(words[i])) {
+                words[i] = first.word;
+            }
+        }
+        IndexedBeer indexedBeer = new IndexedBeer(beerDTO, words);
+        if (replace) {
+            beers.put(beerDTO.getId(), indexedBeer);
+        } else if (beers.putIfAbsent(beerDTO.getId(), indexedBeer) != null) {
+            return;
+        }
+        for (String word : words) {
+            terms.add(new Term(word, beerDTO.getId()));
+        }
+    }
+
+    private void remove(Long id) {
+        IndexedBeer indexedBeer = beers.remove(id);
+        if (indexedBeer != null) {
+            for (String word : indexedBeer.words) {
+                terms.remove(new Term(word, id));
+            }
+        }
+    }
+
+    static String[] words(String text) {
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.splitAsStream(normalized)
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Every prefix one deletion, substitution, insertion or adjacent transposition away from {@code word}.
+     * Appending a letter is left out, as the scan of {@code word} itself already covers it.
+     */
+    static List<String> oneEditAway(String word) {
+        List<String> variants = new ArrayList<>();
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            variants.add(word.substring(0, i) + word.substring(i + 1));
+            if (i + 1 < chars.length && chars[i] != chars[i + 1]) {
+                variants.add(word.substring(0, i) + chars[i + 1] + chars[i] + word.substring(i + 2));
+            }
+        }
+        for (int i = 0; i < chars.length; i++) {
+            for (char letter : ALPHABET) {
+                if (letter != chars[i]) {
+                    variants.add(word.substring(0, i) + letter + word.substring(i + 1));
+                }
+                variants.add(word.substring(0, i) + letter + word.substring(i));
+            }
+        }
+        return variants;
+    }
+
+    private static class Term {
+
+        static final Comparator<Term> ORDER = Comparator.<Term, String>comparing(term -> term.word)
+                .thenComparingLong(term -> term.beerId);
+
+        private final String word;
+        private final long beerId;
+
+        Term(String word, long beerId) {
+            this.word = word;
+            this.beerId = beerId;
+        }
+    }
+
+    private static class IndexedBeer {
+
+        private final BeerDTO beer;
+        private final String[] words;
+
+        IndexedBeer(BeerDTO beer, String[] words) {
+            this.beer = beer;
+            this.words = words;
+        }
+
+        boolean startsWithAll(String[] queryWords, String scannedWord) {
+            boolean scannedSkipped = false;
+            for (String queryWord : queryWords) {
+                if (!scannedSkipped && queryWord.equals(scannedWord)) {
+                    scannedSkipped = true;
+                } else if (Arrays.stream(words).noneMatch(word -> word.startsWith(queryWord))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.counter.ShardedStock;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerExportService {
+
+    private final BeerRepository beerRepository;
+    private final FastStockCounters fastStockCounters;
+    private final ShardedStock shardedStock;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    /**
+     * Streams every beer as one JSON line. The session neither reads nor fills the second-level cache
+     * meanwhile, so an export does not push the hot beers out of it; a cache mode hint on the query would
+     * be restored as soon as the stream opens, before its rows are loaded.
+     */
+    @Transactional(readOnly = true)
+    public long exportTo(OutputStream outputStream) throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            return export(outputStream);
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
+
+    private long export(OutputStream outputStream) throws IOException {
+        ObjectWriter beerWriter = objectMapper.writerFor(BeerDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exportedBeers = 0;
+        try (Stream<Beer> beers = beerRepository.streamAllByOrderByIdAsc();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Beer> beerIterator = beers.iterator();
+            while (beerIterator.hasNext()) {
+                Beer beer = beerIterator.next();
+                beerWriter.writeValue(generator, fastStockCounters.overlay(shardedStock.overlay(beerMapper.toDTO(beer))));
+                generator.writeRaw('\n');
+                entityManager.detach(beer);
+                exportedBeers++;
+            }
+        }
+        return exportedBeers;
+    }
+}
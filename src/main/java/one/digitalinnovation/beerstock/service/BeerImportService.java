@@ -0,0 +1,277 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportErrorDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BeerImportService {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public static final int MAX_LINE_LENGTH = 16 * 1024;
+
+    private static final int PARSE_BUFFER_SIZE = 8192;
+
+    private final BeerService beerService;
+    private final BeerRepository beerRepository;
+    private final Validator validator;
+    private final ObjectReader ndjsonReader;
+    private final CsvMapper csvMapper;
+    private final ObjectReader csvHeaderReader;
+    private final int chunkSize;
+
+    public BeerImportService(BeerService beerService,
+                             BeerRepository beerRepository,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${beerstock.import.chunk-size:1000}") int chunkSize) {
+        this.beerService = beerService;
+        this.beerRepository = beerRepository;
+        this.validator = validator;
+        this.ndjsonReader = objectMapper.readerFor(BeerDTO.class);
+        this.csvMapper = new CsvMapper();
+        this.csvMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.csvHeaderReader = csvMapper.readerForArrayOf(String.class)
+                .with(CsvParser.Feature.TRIM_SPACES);
+        this.chunkSize = chunkSize;
+    }
+
+    public BeerImportResultDTO importNdjson(InputStream inputStream) throws IOException {
+        LineReader reader = new LineReader(inputStream);
+        return importRows(reader, 1, ndjsonReader, new ImportReport());
+    }
+
+    public BeerImportResultDTO importCsv(InputStream inputStream) throws IOException {
+        LineReader reader = new LineReader(inputStream);
+        ImportReport report = new ImportReport();
+        String header = reader.readLine();
+        if (header == null) {
+            return report.toResult();
+        }
+        if (reader.isTooLong()) {
+            report.reject(1, tooLong());
+            return report.toResult();
+        }
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : csvHeaderReader.<String[]>readValue(header)) {
+            schema.addColumn(column);
+        }
+        return importRows(reader, 2, csvMapper.readerFor(BeerDTO.class).with(schema.build()), report);
+    }
+
+    private BeerImportResultDTO importRows(LineReader reader, long firstRow, ObjectReader rowReader, ImportReport report) throws IOException {
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long row = firstRow;
+        for (String line = reader.readLine(); line != null; line = reader.readLine(), row++) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            report.rows++;
+            if (reader.isTooLong()) {
+                report.reject(row, tooLong());
+                continue;
+            }
+            BeerDTO beerDTO;
+            try {
+                beerDTO = rowReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                report.reject(row, e.getOriginalMessage());
+                continue;
+            }
+            if (beerDTO == null) {
+                report.reject(row, "row is not a beer");
+                continue;
+            }
+            Set<ConstraintViolation<BeerDTO>> violations = validator.validate(beerDTO);
+            if (!violations.isEmpty()) {
+                report.reject(row, describe(violations));
+                continue;
+            }
+            beerDTO.setId(null);
+            chunk.add(new ImportRow(row, beerDTO));
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        writeChunk(chunk, report);
+        return report.toResult();
+    }
+
+    private void writeChunk(List<ImportRow> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> registeredNames = new HashSet<>(beerRepository.findNamesIn(chunk.stream()
+                .map(importRow -> importRow.beerDTO.getName())
+                .collect(Collectors.toSet())));
+        Set<String> chunkNames = new HashSet<>();
+        List<ImportRow> newRows = new ArrayList<>(chunk.size());
+        for (ImportRow importRow : chunk) {
+            String name = importRow.beerDTO.getName();
+            if (registeredNames.contains(name) || !chunkNames.add(name)) {
+                report.reject(importRow.row, new BeerAlreadyRegisteredException(name).getMessage());
+            } else {
+                newRows.add(importRow);
+            }
+        }
+        save(newRows, report);
+    }
+
+    /**
+     * Saves the rows in one batch and, when the batch breaks a database constraint, saves them one by one so
+     * that only the offending rows are rejected.
+     */
+    private void save(List<ImportRow> rows, ImportReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            beerService.saveBeers(rows.stream()
+                    .map(importRow -> importRow.beerDTO)
+                    .collect(Collectors.toList()));
+            report.imported += rows.size();
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() == 1) {
+                report.reject(rows.get(0).row, e.getMostSpecificCause().getMessage());
+            } else {
+                rows.forEach(importRow -> save(Collections.singletonList(importRow), report));
+            }
+        }
+    }
+
+    private static String tooLong() {
+        return "row is longer than " + MAX_LINE_LENGTH + " characters";
+    }
+
+    private static String describe(Set<ConstraintViolation<BeerDTO>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Reads lines like {@link java.io.BufferedReader#readLine()}, but keeps no more than
+     * {@value #MAX_LINE_LENGTH} characters of a line and skips the rest of a longer one.
+     */
+    private static class LineReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[PARSE_BUFFER_SIZE];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean tooLong;
+
+        LineReader(InputStream inputStream) {
+            this.reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return line.length() > 0 || tooLong ? line.toString() : null;
+                    }
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    skipLineFeed = buffer[position++] == '\r';
+                    return line.toString();
+                }
+            }
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        private void append(int start, int end) {
+            int length = Math.min(end - start, MAX_LINE_LENGTH - line.length());
+            tooLong |= length < end - start;
+            line.append(buffer, start, length);
+        }
+    }
+
+    private static class ImportRow {
+
+        private final long row;
+        private final BeerDTO beerDTO;
+
+        ImportRow(long row, BeerDTO beerDTO) {
+            this.row = row;
+            this.beerDTO = beerDTO;
+        }
+    }
+
+    private static class ImportReport {
+
+        private final long startNanos = System.nanoTime();
+        private final List<BeerImportErrorDTO> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long rejected;
+
+        void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BeerImportErrorDTO(row, message));
+            }
+        }
+
+        BeerImportResultDTO toResult() {
+            long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+            return BeerImportResultDTO.builder()
+                    .rows(rows)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .rowsPerSecond(rows * 1_000_000_000L / elapsedNanos)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
@@ -1,50 +1,163 @@
 package one.digitalinnovation.beerstock.service;
 
 import lombok.AllArgsConstructor;
+import lombok.Value;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.cache.CatalogVersion;
+import one.digitalinnovation.beerstock.cache.SingleFlight;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.counter.ShardedStock;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveResultDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.StockMoveStatus;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.search.BeerSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 10;
+
     private final BeerRepository beerRepository;
+    private final BeerCache beerCache;
+    private final CatalogVersion catalogVersion;
+    private final FastStockCounters fastStockCounters;
+    private final ShardedStock shardedStock;
+    private final BeerSearchIndex beerSearchIndex;
+    private final StockUpdatePolicy stockUpdatePolicy;
+    private final ApplicationEventPublisher eventPublisher;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final SingleFlight<PageQuery, BeerPageDTO> pageFlights = new SingleFlight<>();
 
+    @Transactional
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
         Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+        publishChange(BeerChangeType.CREATED, savedBeerDTO, savedBeerDTO.getQuantity());
+        return savedBeerDTO;
+    }
+
+    @Transactional
+    public List<BeerDTO> createBeers(List<BeerDTO> beerDTOs) throws BeerAlreadyRegisteredException {
+        verifyIfAreAlreadyRegistered(beerDTOs.stream()
+                .map(BeerDTO::getName)
+                .collect(Collectors.toList()));
+        return saveBeers(beerDTOs);
+    }
+
+    /**
+     * Saves beers whose names the caller has already checked, leaving a clash with a concurrent insert to
+     * the unique index.
+     */
+    @Transactional
+    public List<BeerDTO> saveBeers(List<BeerDTO> beerDTOs) {
+        List<Beer> beers = beerDTOs.stream()
+                .map(beerMapper::toModel)
+                .collect(Collectors.toList());
+        List<BeerDTO> savedBeerDTOs = beerRepository.saveAll(beers)
+                .stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toList());
+        savedBeerDTOs.forEach(savedBeerDTO -> publishChange(BeerChangeType.CREATED, savedBeerDTO, savedBeerDTO.getQuantity()));
+        return savedBeerDTOs;
     }
 
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
+        return beerCache.getByName(name, this::loadByName)
+                .map(shardedStock::overlay)
+                .map(fastStockCounters::overlay)
                 .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
     }
 
-    public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
+    private Optional<BeerDTO> loadByName(String name) {
+        return beerRepository.findByName(name).map(beerMapper::toDTO);
+    }
+
+    /**
+     * Concurrent calls for the same page share one query, as long as they read the same catalog version
+     * before calling; a call made after a commit never joins a query started before it. Not transactional,
+     * so callers waiting for that query do not hold a connection.
+     */
+    public BeerPageDTO listAll(Long after, int limit, BeerType type, String brand) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long cursor = after == null ? 0L : after;
+        PageQuery pageQuery = new PageQuery(catalogVersion.version(), cursor, pageSize, type, brand);
+        return pageFlights.execute(pageQuery, () -> loadPage(cursor, pageSize, type, brand));
+    }
+
+    private BeerPageDTO loadPage(long cursor, int pageSize, BeerType type, String brand) {
+        List<BeerDTO> beers = findPage(cursor, type, brand, PageRequest.of(0, pageSize + 1));
+        Long nextCursor = null;
+        if (beers.size() > pageSize) {
+            beers = beers.subList(0, pageSize);
+            nextCursor = beers.get(pageSize - 1).getId();
+        }
+        List<BeerDTO> beerDTOs = shardedStock.overlay(beers).stream()
+                .map(fastStockCounters::overlay)
+                .collect(Collectors.toList());
+        return new BeerPageDTO(beerDTOs, nextCursor);
+    }
+
+    public List<BeerDTO> search(String query, BeerType type, int limit) {
+        return shardedStock.overlay(beerSearchIndex.search(query, type, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)))
                 .stream()
-                .map(beerMapper::toDTO)
+                .map(fastStockCounters::overlay)
                 .collect(Collectors.toList());
     }
 
+    private List<BeerDTO> findPage(long after, BeerType type, String brand, Pageable pageable) {
+        if (type != null && brand != null) {
+            return beerRepository.findBeerDTOsByTypeAndBrandAndIdGreaterThan(type, brand, after, pageable);
+        }
+        if (type != null) {
+            return beerRepository.findBeerDTOsByTypeAndIdGreaterThan(type, after, pageable);
+        }
+        if (brand != null) {
+            return beerRepository.findBeerDTOsByBrandAndIdGreaterThan(brand, after, pageable);
+        }
+        return beerRepository.findBeerDTOsByIdGreaterThan(after, pageable);
+    }
+
+    @Transactional
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
+        Beer beerToDelete = verifyIfExists(id);
+        BeerDTO deletedBeerDTO = fastStockCounters.overlay(shardedStock.overlay(beerMapper.toDTO(beerToDelete)));
+        if (shardedStock.isSharded(id)) {
+            shardedStock.removeShards(id);
+        }
         beerRepository.deleteById(id);
+        publishChange(BeerChangeType.DELETED, deletedBeerDTO, -deletedBeerDTO.getQuantity());
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
@@ -54,33 +167,171 @@ public class BeerService {
         }
     }
 
+    private void verifyIfAreAlreadyRegistered(List<String> names) throws BeerAlreadyRegisteredException {
+        Set<String> uniqueNames = new HashSet<>();
+        Set<String> duplicatedNames = names.stream()
+                .filter(name -> !uniqueNames.add(name))
+                .collect(Collectors.toCollection(TreeSet::new));
+        duplicatedNames.addAll(beerRepository.findNamesIn(uniqueNames));
+        if (!duplicatedNames.isEmpty()) {
+            throw new BeerAlreadyRegisteredException(duplicatedNames);
+        }
+    }
+
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
         return beerRepository.findById(id)
                 .orElseThrow(() -> new BeerNotFoundException(id));
     }
 
-    public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrementStock = verifyIfExists(id);
-        if ((quantityToIncrement + beerToIncrementStock.getQuantity()) <= beerToIncrementStock.getMax()) {
-            beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantityToIncrement);
-            Beer incrmentedBeerStock = beerRepository.save(beerToIncrementStock);
-            BeerDTO beerDTO = beerMapper.toDTO(incrmentedBeerStock);
-            return beerDTO;
+    @Transactional
+    public BeerDTO increment(Long id, int quantityToIncrement)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+        BeerDTO incrementedBeerDTO = moveStockOf(id, quantityToIncrement);
+        publishChange(BeerChangeType.INCREMENTED, incrementedBeerDTO, quantityToIncrement);
+        return incrementedBeerDTO;
+    }
+
+    @Transactional
+    public BeerDTO decrement(Long id, int quantityToDecrement)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+        BeerDTO decrementedBeerDTO = moveStockOf(id, -quantityToDecrement);
+        publishChange(BeerChangeType.DECREMENTED, decrementedBeerDTO, -quantityToDecrement);
+        return decrementedBeerDTO;
+    }
+
+    public BeerDTO shardStock(Long id, int shards) throws BeerNotFoundException {
+        if (fastStockCounters.isHot(id)) {
+            throw new IllegalStateException("Hot beers keep their stock in fast counters and cannot be sharded");
         }
-        throw new BeerStockExceededException(id, quantityToIncrement);
+        return shardedStock.shard(id, shards);
     }
 
-    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToDecrementStock = verifyIfExists(id);
-        int expectedQuantiyDecremented = beerToDecrementStock.getQuantity() - quantityToDecrement;
-        if ((expectedQuantiyDecremented) >= 0) {
-            beerToDecrementStock.setQuantity(expectedQuantiyDecremented);
-            Beer decrementedBeerStock = beerRepository.save(beerToDecrementStock);
-            BeerDTO decrementedBeerStockDTO = beerMapper.toDTO(decrementedBeerStock);
-            return decrementedBeerStockDTO;
+    public BeerDTO unshardStock(Long id) throws BeerNotFoundException {
+        return shardedStock.unshard(id);
+    }
+
+    private BeerDTO moveStockOf(Long id, int quantityDelta) throws BeerNotFoundException, BeerStockExceededException {
+        if (fastStockCounters.isHot(id)) {
+            Optional<BeerDTO> movedBeerDTO = fastStockCounters.move(id, quantityDelta);
+            if (movedBeerDTO.isPresent()) {
+                return movedBeerDTO.get();
+            }
+        }
+        return shardedStock.isSharded(id)
+                ? shardedStock.move(id, quantityDelta)
+                : beerMapper.toDTO(moveStock(id, quantityDelta));
+    }
+
+    private Beer moveStock(Long id, int quantityDelta) throws BeerNotFoundException, BeerStockExceededException {
+        switch (stockUpdatePolicy.getStrategy()) {
+            case OPTIMISTIC:
+                return moveLoadedStock(verifyIfExists(id), quantityDelta);
+            case PESSIMISTIC:
+                return moveLoadedStock(beerRepository.findByIdForUpdate(id)
+                        .orElseThrow(() -> new BeerNotFoundException(id)), quantityDelta);
+            default:
+                return moveStockAtomically(id, quantityDelta);
+        }
+    }
+
+    private Beer moveStockAtomically(Long id, int quantityDelta) throws BeerNotFoundException, BeerStockExceededException {
+        int updatedRows = quantityDelta >= 0
+                ? beerRepository.incrementQuantity(id, quantityDelta)
+                : beerRepository.decrementQuantity(id, -quantityDelta);
+        Beer movedBeer = verifyIfExists(id);
+        if (updatedRows == 0) {
+            throw new BeerStockExceededException(id, Math.abs(quantityDelta));
+        }
+        return movedBeer;
+    }
+
+    private Beer moveLoadedStock(Beer beer, int quantityDelta) throws BeerStockExceededException {
+        int expectedQuantity = beer.getQuantity() + quantityDelta;
+        if (expectedQuantity < 0 || expectedQuantity > beer.getMax()) {
+            throw new BeerStockExceededException(beer.getId(), Math.abs(quantityDelta));
+        }
+        beer.setQuantity(expectedQuantity);
+        return beer;
+    }
+
+    @Transactional
+    public List<StockMoveResultDTO> applyStockMoves(List<StockMoveDTO> stockMoves) {
+        List<Long> ids = stockMoves.stream()
+                .map(StockMoveDTO::getId)
+                .filter(id -> !fastStockCounters.isHot(id) && !shardedStock.isSharded(id))
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Beer> beersById = beerRepository.findByIdInOrderById(ids)
+                .stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+        return stockMoves.stream()
+                .map(stockMove -> fastStockCounters.isHot(stockMove.getId()) || shardedStock.isSharded(stockMove.getId())
+                        ? applyFastStockMove(stockMove)
+                        : applyStockMove(beersById.get(stockMove.getId()), stockMove))
+                .collect(Collectors.toList());
+    }
+
+    private StockMoveResultDTO applyStockMove(Beer beer, StockMoveDTO stockMove) {
+        StockMoveResultDTO.StockMoveResultDTOBuilder result = StockMoveResultDTO.builder()
+                .id(stockMove.getId())
+                .delta(stockMove.getDelta());
+        if (beer == null) {
+            return result.status(StockMoveStatus.NOT_FOUND)
+                    .message(new BeerNotFoundException(stockMove.getId()).getMessage())
+                    .build();
         }
-        throw new BeerStockExceededException(id, quantityToDecrement);
+        int expectedQuantity = beer.getQuantity() + stockMove.getDelta();
+        if (expectedQuantity < 0 || expectedQuantity > beer.getMax()) {
+            return result.status(StockMoveStatus.STOCK_EXCEEDED)
+                    .quantity(beer.getQuantity())
+                    .message(new BeerStockExceededException(beer.getId(), Math.abs(stockMove.getDelta())).getMessage())
+                    .build();
+        }
+        beer.setQuantity(expectedQuantity);
+        BeerChangeType changeType = stockMove.getDelta() >= 0 ? BeerChangeType.INCREMENTED : BeerChangeType.DECREMENTED;
+        publishChange(changeType, beerMapper.toDTO(beer), stockMove.getDelta());
+        return result.status(StockMoveStatus.APPLIED)
+                .quantity(expectedQuantity)
+                .build();
     }
 
+    private StockMoveResultDTO applyFastStockMove(StockMoveDTO stockMove) {
+        StockMoveResultDTO.StockMoveResultDTOBuilder result = StockMoveResultDTO.builder()
+                .id(stockMove.getId())
+                .delta(stockMove.getDelta());
+        try {
+            BeerDTO movedBeerDTO = moveStockOf(stockMove.getId(), stockMove.getDelta());
+            BeerChangeType changeType = stockMove.getDelta() >= 0 ? BeerChangeType.INCREMENTED : BeerChangeType.DECREMENTED;
+            publishChange(changeType, movedBeerDTO, stockMove.getDelta());
+            return result.status(StockMoveStatus.APPLIED)
+                    .quantity(movedBeerDTO.getQuantity())
+                    .build();
+        } catch (BeerNotFoundException e) {
+            return result.status(StockMoveStatus.NOT_FOUND)
+                    .message(e.getMessage())
+                    .build();
+        } catch (BeerStockExceededException e) {
+            return result.status(StockMoveStatus.STOCK_EXCEEDED)
+                    .message(e.getMessage())
+                    .build();
+        }
+    }
 
+    private void publishChange(BeerChangeType changeType, BeerDTO beerDTO, int quantityDelta) {
+        eventPublisher.publishEvent(new BeerChangeEvent(changeType, beerDTO, quantityDelta));
+    }
+
+    @Value
+    private static class PageQuery {
+
+        long catalogVersion;
+
+        long after;
+
+        int pageSize;
+
+        BeerType type;
+
+        String brand;
+    }
 }
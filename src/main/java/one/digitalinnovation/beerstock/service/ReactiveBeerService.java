@@ -0,0 +1,170 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.counter.ShardedStock;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.ReactiveBeerRepository;
+import one.digitalinnovation.beerstock.search.BeerSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link BeerService} for the {@code reactive} profile. Every write is a single guarded statement, so no
+ * reactive transaction is needed; hot and sharded beers still go through {@link FastStockCounters} and
+ * {@link ShardedStock}, off the event loop.
+ */
+@Service
+@Profile("reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerService {
+
+    private final ReactiveBeerRepository beerRepository;
+    private final FastStockCounters fastStockCounters;
+    private final ShardedStock shardedStock;
+    private final BeerSearchIndex beerSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Mono<BeerDTO> createBeer(BeerDTO beerDTO) {
+        return beerRepository.findByName(beerDTO.getName())
+                .flatMap(savedBeerDTO -> Mono.<BeerDTO>error(new BeerAlreadyRegisteredException(beerDTO.getName())))
+                .switchIfEmpty(Mono.defer(() -> beerRepository.insert(beerDTO)))
+                .onErrorMap(DataIntegrityViolationException.class, e -> new BeerAlreadyRegisteredException(beerDTO.getName()))
+                .doOnNext(savedBeerDTO -> publishChange(BeerChangeType.CREATED, savedBeerDTO, savedBeerDTO.getQuantity()));
+    }
+
+    public Mono<BeerDTO> findByName(String name) {
+        return beerRepository.findByName(name)
+                .flatMap(this::overlay)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(name)));
+    }
+
+    public Mono<BeerPageDTO> listAll(Long after, int limit, BeerType type, String brand) {
+        int pageSize = Math.min(Math.max(limit, 1), BeerService.MAX_PAGE_SIZE);
+        long cursor = after == null ? 0L : after;
+        return beerRepository.findPage(cursor, type, brand, pageSize + 1)
+                .collectList()
+                .flatMap(this::overlay)
+                .map(beers -> toPage(beers, pageSize));
+    }
+
+    public Flux<BeerDTO> search(String query, BeerType type, int limit) {
+        return overlay(beerSearchIndex.search(query, type, Math.min(Math.max(limit, 1), BeerService.MAX_PAGE_SIZE)))
+                .flatMapIterable(beers -> beers);
+    }
+
+    public Flux<BeerDTO> exportAll() {
+        return beerRepository.findAllOrderById()
+                .concatMap(this::overlay);
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return verifyIfExists(id)
+                .flatMap(this::overlay)
+                .flatMap(deletedBeerDTO -> removeShards(id)
+                        .then(beerRepository.deleteById(id))
+                        .doOnSuccess(deletedRows -> publishChange(BeerChangeType.DELETED, deletedBeerDTO, -deletedBeerDTO.getQuantity())))
+                .then();
+    }
+
+    public Mono<BeerDTO> increment(Long id, int quantityToIncrement) {
+        return moveStock(id, quantityToIncrement)
+                .doOnNext(incrementedBeerDTO -> publishChange(BeerChangeType.INCREMENTED, incrementedBeerDTO, quantityToIncrement));
+    }
+
+    public Mono<BeerDTO> decrement(Long id, int quantityToDecrement) {
+        return moveStock(id, -quantityToDecrement)
+                .doOnNext(decrementedBeerDTO -> publishChange(BeerChangeType.DECREMENTED, decrementedBeerDTO, -quantityToDecrement));
+    }
+
+    private Mono<BeerDTO> moveStock(Long id, int quantityDelta) {
+        if (!fastStockCounters.isHot(id)) {
+            return moveOffCounters(id, quantityDelta);
+        }
+        return Mono.fromCallable(() -> fastStockCounters.move(id, quantityDelta))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(movedBeerDTO -> movedBeerDTO.map(Mono::just)
+                        .orElseGet(() -> moveOffCounters(id, quantityDelta)));
+    }
+
+    private Mono<BeerDTO> moveOffCounters(Long id, int quantityDelta) {
+        if (shardedStock.isSharded(id)) {
+            return Mono.fromCallable(() -> shardedStock.move(id, quantityDelta))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        Mono<Integer> updatedRows = quantityDelta >= 0
+                ? beerRepository.incrementQuantity(id, quantityDelta)
+                : beerRepository.decrementQuantity(id, -quantityDelta);
+        return updatedRows.flatMap(rows -> verifyStockMove(id, rows, Math.abs(quantityDelta)));
+    }
+
+    private Mono<BeerDTO> verifyStockMove(Long id, int updatedRows, int quantity) {
+        return verifyIfExists(id)
+                .flatMap(beerDTO -> updatedRows == 0
+                        ? Mono.error(new BeerStockExceededException(id, quantity))
+                        : Mono.just(beerDTO));
+    }
+
+    private Mono<BeerDTO> overlay(BeerDTO beerDTO) {
+        if (!shardedStock.isSharded(beerDTO.getId())) {
+            return Mono.just(fastStockCounters.overlay(beerDTO));
+        }
+        return Mono.fromCallable(() -> fastStockCounters.overlay(shardedStock.overlay(beerDTO)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<List<BeerDTO>> overlay(List<BeerDTO> beerDTOs) {
+        if (beerDTOs.stream().map(BeerDTO::getId).noneMatch(shardedStock::isSharded)) {
+            return Mono.just(overlayCounters(beerDTOs));
+        }
+        return Mono.fromCallable(() -> overlayCounters(shardedStock.overlay(beerDTOs)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private List<BeerDTO> overlayCounters(List<BeerDTO> beerDTOs) {
+        return beerDTOs.stream()
+                .map(fastStockCounters::overlay)
+                .collect(Collectors.toList());
+    }
+
+    private Mono<Void> removeShards(Long id) {
+        if (!shardedStock.isSharded(id)) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> shardedStock.removeShards(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<BeerDTO> verifyIfExists(Long id) {
+        return beerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(id)));
+    }
+
+    private static BeerPageDTO toPage(List<BeerDTO> beers, int pageSize) {
+        if (beers.size() <= pageSize) {
+            return new BeerPageDTO(beers, null);
+        }
+        List<BeerDTO> page = beers.subList(0, pageSize);
+        return new BeerPageDTO(page, page.get(pageSize - 1).getId());
+    }
+
+    private void publishChange(BeerChangeType changeType, BeerDTO beerDTO, int quantityDelta) {
+        eventPublisher.publishEvent(new BeerChangeEvent(changeType, beerDTO, quantityDelta));
+    }
+}
@@ -0,0 +1,48 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.enums.StockUpdateStrategy;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Retries optimistic stock moves that lost a version check. It runs outside the transaction advice, so
+ * every attempt reads the beer again in a fresh transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StockConflictRetryAspect {
+
+    private final StockUpdatePolicy stockUpdatePolicy;
+
+    public StockConflictRetryAspect(StockUpdatePolicy stockUpdatePolicy) {
+        this.stockUpdatePolicy = stockUpdatePolicy;
+    }
+
+    @Around("execution(public * one.digitalinnovation.beerstock.service.BeerService.increment(..)) || " +
+            "execution(public * one.digitalinnovation.beerstock.service.BeerService.decrement(..))")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (stockUpdatePolicy.getStrategy() != StockUpdateStrategy.OPTIMISTIC) {
+            return joinPoint.proceed();
+        }
+        int maxAttempts = stockUpdatePolicy.getMaxAttempts();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == maxAttempts) {
+                    throw new BeerStockConflictException((Long) joinPoint.getArgs()[0], attempt);
+                }
+                LockSupport.parkNanos(stockUpdatePolicy.backoffNanos(attempt));
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Getter;
+import one.digitalinnovation.beerstock.enums.StockUpdateStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How single stock moves are written, and how often an optimistic move is retried after a version conflict.
+ * Retries wait a random time up to an exponentially growing bound, so that colliding writers spread out.
+ */
+@Getter
+@Component
+public class StockUpdatePolicy {
+
+    private final StockUpdateStrategy strategy;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public StockUpdatePolicy(@Value("${beerstock.stock.update-strategy:atomic}") StockUpdateStrategy strategy,
+                             @Value("${beerstock.stock.optimistic.max-attempts:5}") int maxAttempts,
+                             @Value("${beerstock.stock.optimistic.initial-backoff:5ms}") Duration initialBackoff,
+                             @Value("${beerstock.stock.optimistic.max-backoff:100ms}") Duration maxBackoff) {
+        this.strategy = strategy;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public long backoffNanos(int failedAttempts) {
+        long bound = initialBackoff.toNanos() << Math.min(failedAttempts - 1, 30);
+        if (bound <= 0 || bound > maxBackoff.toNanos()) {
+            bound = maxBackoff.toNanos();
+        }
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+}
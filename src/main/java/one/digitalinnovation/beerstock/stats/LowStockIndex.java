@@ -0,0 +1,151 @@
+package one.digitalinnovation.beerstock.stats;
+
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.counter.ShardedStock;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.event.BeerLowStockEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Every beer ordered by how full its stock is, {@code quantity / max}, so the beers at or below a ratio are
+ * the head of a sorted set. Stock moves are applied as deltas, which keeps the quantities right whatever
+ * order concurrent commits are delivered in. A beer dropping to or below the alert ratio publishes a
+ * {@link BeerLowStockEvent}, which the change feed passes on to its subscribers; an alert ratio of zero
+ * turns that off.
+ */
+@Component
+@Lazy(false)
+public class LowStockIndex implements SmartInitializingSingleton {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final BeerRepository beerRepository;
+    private final ShardedStock shardedStock;
+    private final FastStockCounters fastStockCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final double alertRatio;
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(Entry.ORDER);
+    private final Map<Long, Entry> beers = new ConcurrentHashMap<>();
+
+    public LowStockIndex(BeerRepository beerRepository,
+                         ShardedStock shardedStock,
+                         FastStockCounters fastStockCounters,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${beerstock.stock.low-stock.alert-ratio:0}") double alertRatio) {
+        this.beerRepository = beerRepository;
+        this.shardedStock = shardedStock;
+        this.fastStockCounters = fastStockCounters;
+        this.eventPublisher = eventPublisher;
+        if (!(alertRatio >= 0 && alertRatio <= 1)) {
+            throw new IllegalArgumentException("Low-stock alert ratio must be between 0 and 1, but was " + alertRatio);
+        }
+        this.alertRatio = alertRatio;
+    }
+
+    /**
+     * Loads the beers once every singleton, including a journal being recovered, is ready, and before the
+     * web server takes requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long after = 0L;
+        List<BeerDTO> page;
+        do {
+            page = beerRepository.findBeerDTOsByIdGreaterThan(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            shardedStock.overlay(page).forEach(beerDTO -> beers.computeIfAbsent(beerDTO.getId(),
+                    id -> index(fastStockCounters.overlay(beerDTO))));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        BeerDTO beerDTO = beerChangeEvent.getBeer();
+        if (beerChangeEvent.getType() == BeerChangeType.CREATED) {
+            beers.computeIfAbsent(beerDTO.getId(), id -> index(beerDTO));
+            return;
+        }
+        if (beerChangeEvent.getType() == BeerChangeType.DELETED) {
+            Entry removed = beers.remove(beerDTO.getId());
+            if (removed != null) {
+                entries.remove(removed);
+            }
+            return;
+        }
+        Entry[] crossed = new Entry[1];
+        beers.computeIfPresent(beerDTO.getId(), (id, entry) -> {
+            entries.remove(entry);
+            Entry moved = index(entry.beer.toBuilder()
+                    .quantity(entry.beer.getQuantity() + beerChangeEvent.getQuantityDelta())
+                    .build());
+            if (alertRatio > 0 && entry.ratio > alertRatio && moved.ratio <= alertRatio) {
+                crossed[0] = moved;
+            }
+            return moved;
+        });
+        if (crossed[0] != null) {
+            eventPublisher.publishEvent(new BeerLowStockEvent(crossed[0].beer, alertRatio));
+        }
+    }
+
+    /**
+     * Up to {@code limit} beers whose stock is at or below {@code ratio} of their {@code max}, emptiest first.
+     */
+    public List<BeerDTO> findAtOrBelow(double ratio, int limit) {
+        List<BeerDTO> found = new ArrayList<>();
+        for (Entry entry : entries.headSet(new Entry(ratio, Long.MAX_VALUE, null), true)) {
+            if (found.size() >= limit) {
+                break;
+            }
+            found.add(entry.beer);
+        }
+        return found;
+    }
+
+    public int size() {
+        return beers.size();
+    }
+
+    private Entry index(BeerDTO beerDTO) {
+        Entry entry = new Entry(ratioOf(beerDTO), beerDTO.getId(), beerDTO);
+        entries.add(entry);
+        return entry;
+    }
+
+    private static double ratioOf(BeerDTO beerDTO) {
+        return beerDTO.getMax() > 0 ? (double) beerDTO.getQuantity() / beerDTO.getMax() : 0.0;
+    }
+
+    private static class Entry {
+
+        static final Comparator<Entry> ORDER = Comparator.<Entry>comparingDouble(entry -> entry.ratio)
+                .thenComparingLong(entry -> entry.beerId);
+
+        private final double ratio;
+        private final long beerId;
+        private final BeerDTO beer;
+
+        Entry(double ratio, long beerId, BeerDTO beer) {
+            this.ratio = ratio;
+            this.beerId = beerId;
+            this.beer = beer;
+        }
+    }
+}
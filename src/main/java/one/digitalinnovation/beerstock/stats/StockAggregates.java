@@ -0,0 +1,179 @@
+package one.digitalinnovation.beerstock.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.StockStatsDTO;
+import one.digitalinnovation.beerstock.dto.StockTotalsDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Beers, units and capacity per beer type and per brand, kept in memory and moved by the deltas of every
+ * committed change. Reconciliation compares them with the beer table and only corrects a difference the
+ * previous run found too, so changes committed but not yet applied here are not taken for drift.
+ */
+@Component
+@Lazy(false)
+public class StockAggregates implements SmartInitializingSingleton {
+
+    public static final String CORRECTIONS_COUNTER_NAME = "beerstock.stats.corrections";
+
+    private final BeerRepository beerRepository;
+    private final FastStockCounters fastStockCounters;
+    private final Counter corrections;
+    private final Totals total = new Totals();
+    private final Map<BeerType, Totals> byType = new EnumMap<>(BeerType.class);
+    private final Map<String, Totals> byBrand = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1L, null);
+    private Map<Totals, long[]> lastDrift = new IdentityHashMap<>();
+
+    public StockAggregates(BeerRepository beerRepository, FastStockCounters fastStockCounters, MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.fastStockCounters = fastStockCounters;
+        this.corrections = Counter.builder(CORRECTIONS_COUNTER_NAME)
+                .description("Stock aggregates corrected after drifting from the beer table")
+                .register(meterRegistry);
+        for (BeerType type : BeerType.values()) {
+            byType.put(type, new Totals());
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        sumTable().forEach(Totals::add);
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChange(BeerChangeEvent beerChangeEvent) {
+        BeerDTO beer = beerChangeEvent.getBeer();
+        long beers = beerChangeEvent.getType() == BeerChangeType.CREATED ? 1
+                : beerChangeEvent.getType() == BeerChangeType.DELETED ? -1 : 0;
+        long[] delta = {beers, beerChangeEvent.getQuantityDelta(), beers * beer.getMax()};
+        total.add(delta);
+        byType.get(beer.getType()).add(delta);
+        byBrand.computeIfAbsent(beer.getBrand(), brand -> new Totals()).add(delta);
+        changes.incrementAndGet();
+    }
+
+    /**
+     * The current aggregates, rebuilt only when a change was applied since the last call.
+     */
+    public StockStatsDTO getStats() {
+        Snapshot current = snapshot;
+        long version = changes.get();
+        if (current.version == version) {
+            return current.stats;
+        }
+        Map<BeerType, StockTotalsDTO> typeTotals = new EnumMap<>(BeerType.class);
+        byType.forEach((type, totals) -> typeTotals.put(type, totals.toDTO()));
+        Map<String, StockTotalsDTO> brandTotals = new TreeMap<>();
+        byBrand.forEach((brand, totals) -> {
+            StockTotalsDTO totalsDTO = totals.toDTO();
+            if (totalsDTO.getBeers() > 0) {
+                brandTotals.put(brand, totalsDTO);
+            }
+        });
+        StockStatsDTO stats = new StockStatsDTO(total.toDTO(), typeTotals, brandTotals);
+        snapshot = new Snapshot(version, stats);
+        return stats;
+    }
+
+    /**
+     * Compares the aggregates with the beer table and corrects the ones that drifted by the same amount in
+     * the previous run. Returns the number of aggregates corrected.
+     */
+    @Scheduled(initialDelayString = "${beerstock.stats.reconcile-interval:60000}",
+            fixedDelayString = "${beerstock.stats.reconcile-interval:60000}")
+    public synchronized int reconcile() {
+        fastStockCounters.flush();
+        Map<Totals, long[]> expected = sumTable();
+        Map<Totals, long[]> drift = new IdentityHashMap<>();
+        expected.forEach((totals, sums) -> drift.put(totals, totals.driftFrom(sums)));
+        byType.values().forEach(totals -> drift.putIfAbsent(totals, totals.driftFrom(new long[3])));
+        byBrand.values().forEach(totals -> drift.putIfAbsent(totals, totals.driftFrom(new long[3])));
+        drift.values().removeIf(difference -> Arrays.equals(difference, new long[3]));
+        int corrected = 0;
+        for (Map.Entry<Totals, long[]> difference : drift.entrySet()) {
+            if (Arrays.equals(difference.getValue(), lastDrift.get(difference.getKey()))) {
+                difference.getKey().add(difference.getValue());
+                corrected++;
+            }
+        }
+        lastDrift = drift;
+        if (corrected > 0) {
+            corrections.increment(corrected);
+            changes.incrementAndGet();
+        }
+        return corrected;
+    }
+
+    private Map<Totals, long[]> sumTable() {
+        Map<Totals, long[]> sums = new IdentityHashMap<>();
+        for (Object[] row : beerRepository.sumStockByTypeAndBrand()) {
+            long[] rowSums = {((Number) row[2]).longValue(), ((Number) row[3]).longValue(), ((Number) row[4]).longValue()};
+            add(sums, total, rowSums);
+            add(sums, byType.get(BeerType.valueOf((String) row[0])), rowSums);
+            add(sums, byBrand.computeIfAbsent((String) row[1], brand -> new Totals()), rowSums);
+        }
+        return sums;
+    }
+
+    private static void add(Map<Totals, long[]> sums, Totals totals, long[] rowSums) {
+        long[] totalsSums = sums.computeIfAbsent(totals, key -> new long[3]);
+        for (int i = 0; i < totalsSums.length; i++) {
+            totalsSums[i] += rowSums[i];
+        }
+    }
+
+    private static class Totals {
+
+        private final LongAdder beers = new LongAdder();
+        private final LongAdder units = new LongAdder();
+        private final LongAdder capacity = new LongAdder();
+
+        void add(long[] delta) {
+            beers.add(delta[0]);
+            units.add(delta[1]);
+            capacity.add(delta[2]);
+        }
+
+        long[] driftFrom(long[] expected) {
+            return new long[]{expected[0] - beers.sum(), expected[1] - units.sum(), expected[2] - capacity.sum()};
+        }
+
+        StockTotalsDTO toDTO() {
+            return new StockTotalsDTO(beers.sum(), units.sum(), capacity.sum());
+        }
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+        private final StockStatsDTO stats;
+
+        Snapshot(long version, StockStatsDTO stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+}
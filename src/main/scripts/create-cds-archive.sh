@@ -0,0 +1,30 @@
+#!/bin/sh
+# Creates a class-data-sharing archive of every class the application loads up to its first successful
+# request, from one training run of the jar built by `mvn -Pfast-start clean package`. The archive only
+# holds classes read from jars, so the Spring Boot jar is unpacked into a plain classpath first.
+set -e
+
+cd "$(dirname "$0")/../../.."
+JAR=$(ls target/beerstock-*.jar | grep -v '\.original$' | head -n 1)
+CDS_DIR="$(pwd)/target/cds"
+PORT=${PORT:-8080}
+
+rm -rf "$CDS_DIR"
+mkdir -p "$CDS_DIR"
+(cd "$CDS_DIR" && jar xf "../../$JAR")
+jar cf "$CDS_DIR/beerstock.jar" -C "$CDS_DIR/BOOT-INF/classes" .
+CLASSPATH="$CDS_DIR/beerstock.jar"
+for LIB in "$CDS_DIR"/BOOT-INF/lib/*.jar; do
+    CLASSPATH="$CLASSPATH:$LIB"
+done
+
+java -XX:ArchiveClassesAtExit="$CDS_DIR/beerstock.jsa" -Xlog:cds=off -cp "$CLASSPATH" \
+    one.digitalinnovation.beerstock.BeerstockApplication --spring.profiles.active=fast-start --server.port="$PORT" &
+PID=$!
+until curl -sf "http://localhost:$PORT/api/v1/beers" > /dev/null; do
+    sleep 0.2
+done
+kill "$PID"
+wait "$PID" || true
+
+echo "java -XX:SharedArchiveFile=$CDS_DIR/beerstock.jsa -cp $CLASSPATH one.digitalinnovation.beerstock.BeerstockApplication --spring.profiles.active=fast-start"
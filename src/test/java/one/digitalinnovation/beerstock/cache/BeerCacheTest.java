@@ -0,0 +1,74 @@
+package one.digitalinnovation.beerstock.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BeerCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BeerCache beerCache = new BeerCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), meterRegistry);
+
+    @Test
+    void whenBeerChangesThenOnlyItsNameIsInvalidated() {
+        //given
+        BeerDTO brahma = BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO();
+        BeerDTO skol = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<BeerDTO>> loader = name -> {
+            loads.incrementAndGet();
+            return Optional.of(name.equals(brahma.getName()) ? brahma : skol);
+        };
+        beerCache.getByName(brahma.getName(), loader);
+        beerCache.getByName(skol.getName(), loader);
+
+        //when
+        beerCache.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, brahma, 5));
+
+        //then
+        beerCache.getByName(brahma.getName(), loader);
+        beerCache.getByName(skol.getName(), loader);
+        assertThat(loads.get(), is(equalTo(3)));
+    }
+
+    @Test
+    void whenMissingBeerIsCreatedThenNegativeEntryIsInvalidated() {
+        //given
+        BeerDTO brahma = BeerDTOBuilder.builder().build().toBeerDTO();
+        assertThat(beerCache.getByName(brahma.getName(), name -> Optional.empty()), is(Optional.empty()));
+
+        //when
+        beerCache.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, brahma, brahma.getQuantity()));
+
+        //then
+        assertThat(beerCache.getByName(brahma.getName(), name -> Optional.of(brahma)), is(Optional.of(brahma)));
+    }
+
+    @Test
+    void whenCacheIsUsedThenHitsAndMissesAreExposedAsMetrics() {
+        //given
+        BeerDTO brahma = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        beerCache.getByName(brahma.getName(), name -> Optional.of(brahma));
+        beerCache.getByName(brahma.getName(), name -> Optional.of(brahma));
+
+        //then
+        assertThat(meterRegistry.get("cache.gets").tag("cache", BeerCache.BEERS_BY_NAME).tag("result", "hit")
+                .functionCounter().count(), is(equalTo(1.0)));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", BeerCache.BEERS_BY_NAME).tag("result", "miss")
+                .functionCounter().count(), is(equalTo(1.0)));
+    }
+}
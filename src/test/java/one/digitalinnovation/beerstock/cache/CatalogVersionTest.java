@@ -0,0 +1,90 @@
+package one.digitalinnovation.beerstock.cache;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogVersionTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion(null);
+
+    private final BeerDTO brahma = BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO();
+
+    private final BeerDTO skol = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+
+    @Test
+    void whenBeerChangesThenCatalogAndOnlyThatBeerGetNewETags() {
+        //given
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, brahma, brahma.getQuantity()));
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, skol, skol.getQuantity()));
+        String catalogETag = catalogVersion.catalogETag();
+        String brahmaETag = catalogVersion.beerETag("Brahma").get();
+        String skolETag = catalogVersion.beerETag("Skol").get();
+
+        //when
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, brahma, 5));
+
+        //then
+        assertThat(catalogVersion.catalogETag(), is(not(equalTo(catalogETag))));
+        assertThat(catalogVersion.beerETag("Brahma").get(), is(not(equalTo(brahmaETag))));
+        assertThat(catalogVersion.beerETag("Skol").get(), is(equalTo(skolETag)));
+    }
+
+    @Test
+    void whenDeletedBeerIsCreatedAgainThenItsETagNeverRepeats() {
+        //given
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, brahma, brahma.getQuantity()));
+        String createdETag = catalogVersion.beerETag("Brahma").get();
+
+        //when
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, brahma, -brahma.getQuantity()));
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, brahma, brahma.getQuantity()));
+
+        //then
+        assertThat(catalogVersion.beerETag("Brahma").get(), is(not(equalTo(createdETag))));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItHasNoETag() {
+        //given
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, brahma, brahma.getQuantity()));
+
+        //when
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, brahma, -brahma.getQuantity()));
+
+        //then
+        assertThat(catalogVersion.beerETag("Brahma"), is(Optional.empty()));
+    }
+
+    @Test
+    void whenSingletonsAreReadyThenOnlyRegisteredBeersHaveETags() {
+        //given
+        CatalogVersion loadedVersion = new CatalogVersion(beerRepository);
+        when(beerRepository.findBeerDTOsByIdGreaterThan(0L, PageRequest.of(0, 1000))).thenReturn(Collections.singletonList(brahma));
+
+        //when
+        loadedVersion.afterSingletonsInstantiated();
+
+        //then
+        assertThat(loadedVersion.beerETag("Brahma").isPresent(), is(true));
+        assertThat(loadedVersion.beerETag("Skol"), is(Optional.empty()));
+    }
+}
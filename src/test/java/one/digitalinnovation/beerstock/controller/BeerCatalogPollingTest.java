@@ -0,0 +1,82 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BeerCatalogPollingTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+    private static final int BEERS = 100;
+    private static final int POLLS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private final List<Long> beerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BEERS; i++) {
+            Beer beer = new Beer(null, "Polled Beer " + i, "Ambev", 500, 0, BeerType.LAGER, null);
+            beerIds.add(beerRepository.save(beer).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerIds.forEach(beerRepository::deleteById);
+    }
+
+    @Test
+    void whenCatalogIsPolledWithItsETagThenNothingIsSentAgain() throws Exception {
+        //given
+        String eTag = mockMvc.perform(get(BEER_API_URL_PATH)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        Poll unconditional = poll(get(BEER_API_URL_PATH), 200);
+        Poll conditional = poll(get(BEER_API_URL_PATH).header(HttpHeaders.IF_NONE_MATCH, eTag), 304);
+
+        //then
+        assertThat(unconditional.bytes, greaterThan(0L));
+        assertThat(conditional.bytes, equalTo(0L));
+    }
+
+    private Poll poll(MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        Poll poll = new Poll();
+        for (int i = 0; i < POLLS; i++) {
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+            assertThat(response.getStatus(), equalTo(expectedStatus));
+            poll.bytes += response.getContentAsByteArray().length;
+        }
+        return poll;
+    }
+
+    private static class Poll {
+
+        private long bytes;
+    }
+}
@@ -1,32 +1,74 @@
 package one.digitalinnovation.beerstock.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.cache.CatalogPageCache;
+import one.digitalinnovation.beerstock.cache.CatalogVersion;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.StockBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveResultDTO;
+import one.digitalinnovation.beerstock.dto.StockShardsDTO;
+import one.digitalinnovation.beerstock.dto.StockStatsDTO;
+import one.digitalinnovation.beerstock.dto.StockTotalsDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.StockMoveStatus;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstock.service.BeerExportService;
+import one.digitalinnovation.beerstock.service.BeerImportService;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.stats.LowStockIndex;
+import one.digitalinnovation.beerstock.stats.StockAggregates;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringContains.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,12 +79,38 @@ public class BeerControllerTest {
     private static final long INVALID_BEER_ID = 2l;
     private static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
     private static final String BEER_API_SUBPATH_DECREMENT_URL = "/decrement";
+    private static final String BEER_API_SUBPATH_STOCK_BATCH_URL = "/stock:batch";
+    private static final String BEER_API_SUBPATH_STOCK_SHARDS_URL = "/stock-shards";
+    private static final String BEER_API_SUBPATH_BATCH_URL = "/batch";
+    private static final String BEER_API_SUBPATH_IMPORT_URL = "/import";
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
 
     private MockMvc mockMvc;
 
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private BeerExportService beerExportService;
+
+    @Mock
+    private BeerImportService beerImportService;
+
+    @Mock
+    private StockAggregates stockAggregates;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion(null);
+
+    @Spy
+    private CatalogPageCache catalogPageCache = new CatalogPageCache(new ObjectMapper());
+
+    @Spy
+    private BeerChangeFeed beerChangeFeed = new BeerChangeFeed(new ObjectMapper(), 16, 16, 1, Duration.ofSeconds(10));
+
     @InjectMocks
     private BeerController beerController;
 
@@ -73,6 +141,26 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.type", is(beerDTO.getType().toString())));
     }
 
+    @Test
+    void whenPOSTIsCalledWithSmileThenBeerIsCreatedAndReturnedAsSmile() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        //when
+        when(beerService.createBeer(beerDTO)).thenReturn(beerDTO);
+
+        //then
+        MvcResult result = mockMvc.perform(post(BEER_API_URL_PATH)
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(beerDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+        assertThat(smileMapper.readValue(result.getResponse().getContentAsByteArray(), BeerDTO.class), is(beerDTO));
+    }
+
     @Test
     void whenPOSTIsCalledWithoutRequiredFieldThenAnErrorIsReturned() throws Exception {
         //given
@@ -86,6 +174,32 @@ public class BeerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPOSTIsCalledWithABatchThenBeersAreCreated() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        List<BeerDTO> beerDTOs = Collections.singletonList(beerDTO);
+
+        //when
+        when(beerService.createBeers(beerDTOs)).thenReturn(beerDTOs);
+
+        //then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_BATCH_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new BeerBatchDTO(beerDTOs))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithAnEmptyBatchThenAnErrorIsReturned() throws Exception {
+        //then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_BATCH_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new BeerBatchDTO(Collections.emptyList()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenGETIsCalledWithValidNameThenOkStatusIsReturned() throws Exception {
         //given
@@ -104,6 +218,66 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.type", is(beerDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETIsCalledWithTheCurrentBeerETagThenNotModifiedStatusIsReturned() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+        String eTag = mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.beerETag(beerDTO.getName()).get()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        //then
+        verify(beerService, times(1)).findByName(beerDTO.getName());
+    }
+
+    @Test
+    void whenGETIsCalledWithTheETagOfADeletedBeerThenNotFoundStatusIsReturned() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        String deletedBeerETag = catalogVersion.beerETag(beerDTO.getName()).get();
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, beerDTO, -beerDTO.getQuantity()));
+        when(beerService.findByName(beerDTO.getName())).thenThrow(BeerNotFoundException.class);
+
+        //then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                        .header(HttpHeaders.IF_NONE_MATCH, deletedBeerETag))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void whenGETIsCalledWithAnOutdatedCatalogETagThenReturnBeerList() throws Exception {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String outdatedETag = catalogVersion.catalogETag();
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, expectedBeerDTO, expectedBeerDTO.getQuantity()));
+
+        //when
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(expectedBeerDTO), null));
+
+        //then
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                        .header(HttpHeaders.IF_NONE_MATCH, outdatedETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.catalogETag()))
+                .andExpect(jsonPath("$[0].name", is(expectedBeerDTO.getName())));
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                        .header(HttpHeaders.IF_NONE_MATCH, catalogVersion.catalogETag()))
+                .andExpect(status().isNotModified());
+        verify(beerService, times(1)).listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+    }
+
     @Test
     void whenGETIsCalledWithNotRegisteredBeerNameThenNotFoundStatusIsReturned() throws Exception {
         //given
@@ -125,27 +299,297 @@ public class BeerControllerTest {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
         //when
-        when(beerService.listAll()).thenReturn(Collections.singletonList(expectedBeerDTO));
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(expectedBeerDTO), null));
+
+        //then
+        mockMvc.perform(get(BEER_API_URL_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(expectedBeerDTO.getName())))
+                .andExpect(header().doesNotExist(BeerController.NEXT_CURSOR_HEADER));
+
+    }
+
+    @Test
+    void whenUnfilteredPageIsReadAgainThenItsSerializedBytesAreReusedUntilTheCatalogChanges() throws Exception {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(expectedBeerDTO), VALID_BEER_ID));
+
+        //when
+        MvcResult first = mockMvc.perform(get(BEER_API_URL_PATH)).andReturn();
+        MvcResult gzipped = mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andReturn();
+
+        //then
+        verify(beerService, times(1)).listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+        assertThat(first.getResponse().getHeader(BeerController.NEXT_CURSOR_HEADER), is(String.valueOf(VALID_BEER_ID)));
+        assertThat(gzipped.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertThat(gzip.readAllBytes(), is(first.getResponse().getContentAsByteArray()));
+        }
+
+        //when
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, expectedBeerDTO, 1));
+        mockMvc.perform(get(BEER_API_URL_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(expectedBeerDTO.getName())));
+
+        //then
+        verify(beerService, times(2)).listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+    }
+
+    @Test
+    void whenUnfilteredPageIsGzippedThenItHasItsOwnETagAndVariesWithAcceptEncodingOnce() throws Exception {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(expectedBeerDTO), null));
+
+        //when
+        MvcResult plain = mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        MvcResult gzipped = mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.ACCEPT_ENCODING, "deflate, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
 
         //then
-        List<BeerDTO> beerDTOlist = beerService.listAll();
+        String plainETag = plain.getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipETag = gzipped.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(gzipETag, is(not(equalTo(plainETag))));
+        assertThat(gzipped.getResponse().getHeaders(HttpHeaders.VARY),
+                is(Collections.singletonList(HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING)));
         mockMvc.perform(get(BEER_API_URL_PATH)
-                        .content(asJsonString(beerDTOlist)))
-                .andExpect(status().isOk());
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
 
+    @Test
+    void whenGETIsCalledAcceptingCborThenReturnBeerListAsCbor() throws Exception {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(expectedBeerDTO), null));
+
+        //then
+        MvcResult result = mockMvc.perform(get(BEER_API_URL_PATH).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        List<BeerDTO> beerDTOs = new ObjectMapper(new CBORFactory())
+                .readValue(result.getResponse().getContentAsByteArray(), new TypeReference<List<BeerDTO>>() {});
+        assertThat(beerDTOs, is(Collections.singletonList(expectedBeerDTO)));
     }
 
     @Test
-    void whenGETIsCalledThenReturnAnEmptyBeerList() throws Exception {
+    void whenGETIsCalledAcceptingCborThenTheETagIsThatOfTheCborRepresentation() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, BeerType.LAGER, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), null));
+        String jsonETag = mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName()))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        String cborETag = mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //then
+        assertThat(cborETag, is(not(equalTo(jsonETag))));
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get(BEER_API_URL_PATH).param("type", BeerType.LAGER.name()).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().string(HttpHeaders.ETAG, not(equalTo(catalogVersion.catalogETag()))));
+    }
+
+    @Test
+    void whenGETIsCalledWithCursorAndFiltersThenReturnBeerPageAndNextCursor() throws Exception {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
         //when
-        when(beerService.listAll()).thenReturn(Collections.emptyList());
+        when(beerService.listAll(VALID_BEER_ID, 1, BeerType.LAGER, expectedBeerDTO.getBrand()))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(expectedBeerDTO), expectedBeerDTO.getId()));
 
         //then
         mockMvc.perform(get(BEER_API_URL_PATH)
-                        .content(asJsonString(Collections.emptyList())))
+                        .param("after", String.valueOf(VALID_BEER_ID))
+                        .param("limit", "1")
+                        .param("type", BeerType.LAGER.name())
+                        .param("brand", expectedBeerDTO.getBrand()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(expectedBeerDTO.getName())))
+                .andExpect(header().string(BeerController.NEXT_CURSOR_HEADER, String.valueOf(expectedBeerDTO.getId())));
+    }
+
+    @Test
+    void whenGETIsCalledThenReturnAnEmptyBeerList() throws Exception {
+        //when
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null))
+                .thenReturn(new BeerPageDTO(Collections.emptyList(), null));
+
+        //then
+        mockMvc.perform(get(BEER_API_URL_PATH))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void whenGETIsCalledToSearchThenReturnMatchingBeers() throws Exception {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        when(beerService.search("brah", BeerType.LAGER, BeerService.DEFAULT_SEARCH_LIMIT))
+                .thenReturn(Collections.singletonList(expectedBeerDTO));
+
+        //then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/search")
+                        .param("q", "brah")
+                        .param("type", BeerType.LAGER.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(expectedBeerDTO.getName())));
+    }
+
+    @Test
+    void whenGETIsCalledForLowStockThenBeersBelowTheRatioAreReturned() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        when(lowStockIndex.findAtOrBelow(0.25, BeerService.MAX_PAGE_SIZE)).thenReturn(Collections.singletonList(beerDTO));
+
+        //then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/low-stock?ratio=0.25&limit=5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGETIsCalledForChangesThenBeerChangesAreStreamedAsServerSentEvents() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        MvcResult mvcResult = mockMvc.perform(get(BEER_API_URL_PATH + "/changes")
+                .header(BeerController.LAST_EVENT_ID_HEADER, "0-1")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        awaitContent(mvcResult, "event:resync");
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 1));
+
+        //then
+        String content = awaitContent(mvcResult, "event:change");
+        assertThat(content, containsString("\"name\":\"" + beerDTO.getName() + "\""));
+        assertThat(content, containsString("\"type\":\"INCREMENTED\""));
+    }
+
+    @Test
+    void whenGETIsCalledForStatsThenStockTotalsAreReturned() throws Exception {
+        //given
+        StockTotalsDTO totals = new StockTotalsDTO(1, 10, 50);
+        StockStatsDTO stats = new StockStatsDTO(totals,
+                Collections.singletonMap(BeerType.LAGER, totals),
+                Collections.singletonMap("Ambev", totals));
+
+        //when
+        when(stockAggregates.getStats()).thenReturn(stats);
+
+        //then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.units", is(10)))
+                .andExpect(jsonPath("$.byType.LAGER.capacity", is(50)))
+                .andExpect(jsonPath("$.byBrand.Ambev.beers", is(1)))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void whenGETIsCalledToExportThenBeersAreStreamedAsNdjson() throws Exception {
+        //given
+        String exportedBeer = asJsonString(BeerDTOBuilder.builder().build().toBeerDTO()) + "\n";
+
+        //when
+        when(beerExportService.exportTo(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(exportedBeer.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        //then
+        MvcResult mvcResult = mockMvc.perform(get(BEER_API_URL_PATH + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BeerController.NDJSON))
+                .andExpect(content().string(exportedBeer));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithACsvUploadThenTheImportResultIsReturned() throws Exception {
+        //given
+        String csv = "name,brand,max,quantity,type\nBrahma,Ambev,50,10,LAGER\n";
+        BeerImportResultDTO importResult = BeerImportResultDTO.builder()
+                .rows(1)
+                .imported(1)
+                .errors(Collections.emptyList())
+                .build();
+
+        //when
+        when(beerImportService.importCsv(any(InputStream.class))).thenReturn(importResult);
+
+        //then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_IMPORT_URL)
+                        .contentType(BeerController.CSV_VALUE)
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+        verify(beerImportService, never()).importNdjson(any(InputStream.class));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithAnNdjsonUploadThenTheImportResultIsReturned() throws Exception {
+        //given
+        String ndjson = asJsonString(BeerDTOBuilder.builder().build().toBeerDTO()) + "\n";
+        BeerImportResultDTO importResult = BeerImportResultDTO.builder()
+                .rows(1)
+                .imported(1)
+                .errors(Collections.emptyList())
+                .build();
+
+        //when
+        when(beerImportService.importNdjson(any(InputStream.class))).thenReturn(importResult);
+
+        //then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_IMPORT_URL)
+                        .contentType(BeerController.NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+    }
+
     @Test
     void whenDELETEIsCalledWithValidIDThenNoContentStatusIsReturned() throws Exception {
         //when
@@ -208,6 +652,22 @@ public class BeerControllerTest {
     }
 
 
+    @Test
+    void whenPATCHIsCalledAndConcurrentChangesOutlastTheRetriesThenConflictStatusIsReturned() throws Exception {
+        //given
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(5).build();
+
+        //when
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity()))
+                .thenThrow(new BeerStockConflictException(VALID_BEER_ID, 5));
+
+        //then
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(quantityDTO)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void whenPATCHIsCalledWithInvalidIDThenReturnNotFoundStatus() throws Exception {
         //given
@@ -309,4 +769,72 @@ public class BeerControllerTest {
                 .andExpect(status().isOk());
 
     }
+
+    @Test
+    void whenPOSTIsCalledWithStockBatchThenResultOfEachMoveIsReturned() throws Exception {
+        //given
+        StockMoveDTO stockMove = StockMoveDTO.builder().id(VALID_BEER_ID).delta(-5).build();
+        StockBatchDTO stockBatchDTO = StockBatchDTO.builder().moves(Collections.singletonList(stockMove)).build();
+        StockMoveResultDTO stockMoveResult = StockMoveResultDTO.builder()
+                .id(VALID_BEER_ID)
+                .delta(-5)
+                .status(StockMoveStatus.APPLIED)
+                .quantity(5)
+                .build();
+
+        //when
+        when(beerService.applyStockMoves(stockBatchDTO.getMoves())).thenReturn(Collections.singletonList(stockMoveResult));
+
+        //then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_BATCH_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(stockBatchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(StockMoveStatus.APPLIED.toString())))
+                .andExpect(jsonPath("$[0].quantity", is(5)));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithEmptyStockBatchThenBadRequestStatusIsReturned() throws Exception {
+        //given
+        StockBatchDTO stockBatchDTO = StockBatchDTO.builder().moves(Collections.emptyList()).build();
+
+        //then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_BATCH_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(stockBatchDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPUTIsCalledWithShardCountThenStockIsShardedAndBeerReturned() throws Exception {
+        //given
+        StockShardsDTO stockShardsDTO = StockShardsDTO.builder().shards(8).build();
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        when(beerService.shardStock(VALID_BEER_ID, stockShardsDTO.getShards())).thenReturn(beerDTO);
+
+        //then
+        mockMvc.perform(put(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_STOCK_SHARDS_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(stockShardsDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+        mockMvc.perform(put(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_STOCK_SHARDS_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(StockShardsDTO.builder().shards(0).build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String awaitContent(MvcResult mvcResult, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = mvcResult.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = mvcResult.getResponse().getContentAsString();
+        }
+        assertThat(content, containsString(expected));
+        return content;
+    }
 }
@@ -0,0 +1,87 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.StockBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BeerStockBatchTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+    private static final int BEERS = 20;
+    private static final int MOVES = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private final List<Long> beerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BEERS; i++) {
+            Beer beer = new Beer(null, "Batch Beer " + i, "Ambev", 500, 0, BeerType.LAGER, null);
+            beerIds.add(beerRepository.save(beer).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerIds.forEach(beerRepository::deleteById);
+    }
+
+    @Test
+    void whenSameMovesAreSentAsSingleCallsAndAsBatchThenResultIsTheSame() throws Exception {
+        //given
+        List<StockMoveDTO> stockMoves = new ArrayList<>();
+        for (int i = 0; i < MOVES; i++) {
+            stockMoves.add(StockMoveDTO.builder().id(beerIds.get(i % BEERS)).delta(1).build());
+        }
+
+        //when
+        for (StockMoveDTO stockMove : stockMoves) {
+            mockMvc.perform(patch(BEER_API_URL_PATH + "/" + stockMove.getId() + "/increment")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(new QuantityDTO(stockMove.getDelta()))))
+                    .andExpect(status().isOk());
+        }
+        assertAllQuantitiesEqualTo(MOVES / BEERS);
+
+        mockMvc.perform(post(BEER_API_URL_PATH + "/stock:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new StockBatchDTO(stockMoves))))
+                .andExpect(status().isOk());
+
+        //then
+        assertAllQuantitiesEqualTo(2 * MOVES / BEERS);
+    }
+
+    private void assertAllQuantitiesEqualTo(int expectedQuantity) {
+        beerRepository.findAllById(beerIds)
+                .forEach(beer -> assertThat(beer.getQuantity(), equalTo(expectedQuantity)));
+    }
+}
@@ -0,0 +1,133 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:beerstock-reactive;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///beerstock-reactive?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+public class ReactiveBeerControllerTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void whenBeerIsCreatedThenItIsReadMovedAndDeleted() {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Reactive Lager").build().toBeerDTO();
+
+        //when
+        BeerDTO createdBeerDTO = webTestClient.post().uri(BEER_API_URL_PATH)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BeerDTO.class).returnResult().getResponseBody();
+
+        //then
+        assertThat(createdBeerDTO.getId(), is(notNullValue()));
+        webTestClient.post().uri(BEER_API_URL_PATH)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/{id}/increment", createdBeerDTO.getId())
+                .bodyValue(QuantityDTO.builder().quantity(5).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.quantity").isEqualTo(beerDTO.getQuantity() + 5);
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/{id}/increment", createdBeerDTO.getId())
+                .bodyValue(QuantityDTO.builder().quantity(beerDTO.getMax()).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+        String eTag = webTestClient.get().uri(BEER_API_URL_PATH + "/{name}", beerDTO.getName())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.quantity").isEqualTo(beerDTO.getQuantity() + 5)
+                .returnResult().getResponseHeaders().getETag();
+        webTestClient.get().uri(BEER_API_URL_PATH + "/{name}", beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.delete().uri(BEER_API_URL_PATH + "/{id}", createdBeerDTO.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri(BEER_API_URL_PATH + "/{name}", beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenCatalogIsListedThenPagesAreLinkedByCursorAndPollsAreConditional() {
+        //given
+        for (int i = 0; i < 3; i++) {
+            BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Reactive Pilsen " + i).build().toBeerDTO();
+            webTestClient.post().uri(BEER_API_URL_PATH).bodyValue(beerDTO).exchange().expectStatus().isCreated();
+        }
+
+        //when
+        WebTestClient.ResponseSpec firstPage = webTestClient.get().uri(BEER_API_URL_PATH + "?limit=2").exchange();
+
+        //then
+        String nextCursor = firstPage.expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2)
+                .returnResult().getResponseHeaders().getFirst(BeerController.NEXT_CURSOR_HEADER);
+        assertThat(nextCursor, is(notNullValue()));
+        String eTag = webTestClient.get().uri(BEER_API_URL_PATH + "?after=" + nextCursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(BeerController.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$.length()").isEqualTo(1)
+                .returnResult().getResponseHeaders().getETag();
+        webTestClient.get().uri(BEER_API_URL_PATH + "?after=" + nextCursor)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void whenBeerIsCreatedThenChangeFeedSubscribersAreSentTheChange() {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Reactive Stout").build().toBeerDTO();
+        Flux<ServerSentEvent<String>> changes = webTestClient.get().uri(BEER_API_URL_PATH + "/changes")
+                .header(BeerController.LAST_EVENT_ID_HEADER, "0-1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody();
+
+        //when
+        webTestClient.post().uri(BEER_API_URL_PATH).bodyValue(beerDTO).exchange().expectStatus().isCreated();
+
+        //then
+        List<ServerSentEvent<String>> events = changes.take(3).collectList().block(Duration.ofSeconds(5));
+        assertThat(events.get(0).comment(), is(BeerController.CHANGES_COMMENT));
+        assertThat(events.get(1).event(), is("resync"));
+        assertThat(events.get(2).event(), is("change"));
+        assertThat(events.get(2).data(), containsString("\"name\":\"Reactive Stout\""));
+    }
+}
@@ -0,0 +1,276 @@
+package one.digitalinnovation.beerstock.counter;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FastStockCountersTest {
+
+    private static final long HOT_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private FastStockCounters fastStockCounters;
+
+    private BeerDTO hotBeerDTO;
+
+    @BeforeEach
+    void setUp() {
+        fastStockCounters = new FastStockCounters(beerRepository, true, Collections.singleton(HOT_BEER_ID));
+        hotBeerDTO = BeerDTOBuilder.builder().id(HOT_BEER_ID).max(500).quantity(0).build().toBeerDTO();
+    }
+
+    @Test
+    void whenFastCountersAreDisabledThenNoBeerIsHot() {
+        FastStockCounters disabledCounters = new FastStockCounters(beerRepository, false, Collections.singleton(HOT_BEER_ID));
+
+        assertThat(disabledCounters.isHot(HOT_BEER_ID), is(false));
+        assertThrows(IllegalStateException.class, () -> disabledCounters.markHot(HOT_BEER_ID));
+    }
+
+    @Test
+    void whenMovesAreAppliedThenReadsSeeTheInMemoryQuantity() throws Exception {
+        //when
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+
+        //then
+        BeerDTO movedBeerDTO = fastStockCounters.move(HOT_BEER_ID, 30).get();
+        fastStockCounters.move(HOT_BEER_ID, -10);
+
+        assertThat(movedBeerDTO.getQuantity(), is(equalTo(30)));
+        assertThat(fastStockCounters.overlay(hotBeerDTO).getQuantity(), is(equalTo(20)));
+        assertThat(hotBeerDTO.getQuantity(), is(equalTo(0)));
+        verify(beerRepository, never()).updateQuantity(anyLong(), anyInt());
+    }
+
+    @Test
+    void whenMoveCrossesMaxOrZeroThenThrowException() {
+        //when
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+
+        //then
+        assertThrows(BeerStockExceededException.class, () -> fastStockCounters.move(HOT_BEER_ID, 501));
+        assertThrows(BeerStockExceededException.class, () -> fastStockCounters.move(HOT_BEER_ID, -1));
+    }
+
+    @Test
+    void whenHotBeerIsNotRegisteredThenThrowException() {
+        //when
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.empty());
+
+        //then
+        assertThrows(BeerNotFoundException.class, () -> fastStockCounters.move(HOT_BEER_ID, 1));
+    }
+
+    @Test
+    void whenFlushIsCalledThenOnlyDirtyCountersAreWritten() throws Exception {
+        //when
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+        when(beerRepository.updateQuantity(HOT_BEER_ID, 7)).thenReturn(1);
+
+        //then
+        fastStockCounters.move(HOT_BEER_ID, 7);
+        fastStockCounters.flush();
+        fastStockCounters.flush();
+
+        verify(beerRepository, times(1)).updateQuantity(HOT_BEER_ID, 7);
+    }
+
+    @Test
+    void whenHotBeerIsDeletedThenItsCounterIsDropped() throws Exception {
+        //when
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+
+        //then
+        fastStockCounters.move(HOT_BEER_ID, 7);
+        fastStockCounters.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, hotBeerDTO, 0));
+        fastStockCounters.flush();
+
+        assertThat(fastStockCounters.overlay(hotBeerDTO).getQuantity(), is(equalTo(0)));
+        verify(beerRepository, never()).updateQuantity(anyLong(), anyInt());
+    }
+
+    @Test
+    void whenHotBeerIsUnmarkedThenItsCounterIsWrittenBackAndMovesGoToTheBeerRow() throws Exception {
+        //when
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+
+        //then
+        fastStockCounters.move(HOT_BEER_ID, 7);
+        fastStockCounters.unmarkHot(HOT_BEER_ID);
+        fastStockCounters.flush();
+
+        assertThat(fastStockCounters.move(HOT_BEER_ID, 1), is(Optional.empty()));
+        assertThat(fastStockCounters.overlay(hotBeerDTO).getQuantity(), is(equalTo(0)));
+        verify(beerRepository, times(1)).updateQuantity(HOT_BEER_ID, 7);
+    }
+
+    @Test
+    void whenHotBeerIsUnmarkedThenReadsDuringTheWriteBackSeeTheCountedQuantity() throws Exception {
+        //given
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+        List<Integer> quantitiesReadDuringWrite = new ArrayList<>();
+        when(beerRepository.updateQuantity(HOT_BEER_ID, 7)).thenAnswer(invocation -> {
+            quantitiesReadDuringWrite.add(fastStockCounters.overlay(hotBeerDTO).getQuantity());
+            return 1;
+        });
+        fastStockCounters.move(HOT_BEER_ID, 7);
+
+        //when
+        fastStockCounters.unmarkHot(HOT_BEER_ID);
+
+        //then
+        assertThat(quantitiesReadDuringWrite, contains(7));
+        assertThat(fastStockCounters.isHot(HOT_BEER_ID), is(false));
+    }
+
+    @Test
+    void whenWriteBackOfUnmarkedBeerFailsThenTheBeerStaysHotAndMovable() throws Exception {
+        //given
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+        when(beerRepository.updateQuantity(HOT_BEER_ID, 7)).thenThrow(new DataAccessResourceFailureException("down"));
+        fastStockCounters.move(HOT_BEER_ID, 7);
+
+        //when
+        assertThrows(DataAccessResourceFailureException.class, () -> fastStockCounters.unmarkHot(HOT_BEER_ID));
+
+        //then
+        assertThat(fastStockCounters.isHot(HOT_BEER_ID), is(true));
+        assertThat(fastStockCounters.move(HOT_BEER_ID, 1).get().getQuantity(), is(equalTo(8)));
+        assertThat(fastStockCounters.overlay(hotBeerDTO).getQuantity(), is(equalTo(8)));
+    }
+
+    @Test
+    void whenFlushFailsThenTheCounterIsWrittenOnTheNextFlush() throws Exception {
+        //given
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+        when(beerRepository.updateQuantity(HOT_BEER_ID, 7))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+        fastStockCounters.move(HOT_BEER_ID, 7);
+
+        //when
+        assertThrows(DataAccessResourceFailureException.class, () -> fastStockCounters.flush());
+        fastStockCounters.flush();
+        fastStockCounters.flush();
+
+        //then
+        verify(beerRepository, times(2)).updateQuantity(HOT_BEER_ID, 7);
+    }
+
+    @Test
+    void whenUndoOfRolledBackMoveWouldPassTheMaxThenItIsRejected() throws Exception {
+        //given
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+        fastStockCounters.move(HOT_BEER_ID, 10);
+
+        //when
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fastStockCounters.move(HOT_BEER_ID, -5);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            fastStockCounters.move(HOT_BEER_ID, 495);
+            synchronizations.forEach(synchronization -> assertThrows(IllegalStateException.class,
+                    () -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK)));
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        //then
+        assertThat(fastStockCounters.overlay(hotBeerDTO).getQuantity(), is(equalTo(500)));
+    }
+
+    @Test
+    void whenTransactionRollsBackThenItsCounterMovesAreUndone() throws Exception {
+        //given
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(beerMapper.toModel(hotBeerDTO)));
+        fastStockCounters.move(HOT_BEER_ID, 10);
+
+        //when
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fastStockCounters.move(HOT_BEER_ID, 5);
+            fastStockCounters.move(HOT_BEER_ID, -3);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then
+        assertThat(fastStockCounters.overlay(hotBeerDTO).getQuantity(), is(equalTo(10)));
+    }
+
+    @Test
+    void whenConcurrentMovesHitTheSameBeerThenStockIsNeverOversold() throws Exception {
+        //given
+        int threads = 8;
+        int movesPerThread = 100_000;
+        Beer hotBeer = beerMapper.toModel(hotBeerDTO);
+        hotBeer.setQuantity(250);
+        when(beerRepository.findById(HOT_BEER_ID)).thenReturn(Optional.of(hotBeer));
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int quantityDelta = i % 2 == 0 ? 3 : -2;
+            results.add(executor.submit(() -> {
+                int applied = 0;
+                for (int j = 0; j < movesPerThread; j++) {
+                    try {
+                        fastStockCounters.move(HOT_BEER_ID, quantityDelta);
+                        applied += quantityDelta;
+                    } catch (BeerStockExceededException ignored) {
+                        // rejected at the bound
+                    }
+                }
+                return applied;
+            }));
+        }
+        int appliedDelta = 0;
+        for (Future<Integer> result : results) {
+            appliedDelta += result.get();
+        }
+        executor.shutdown();
+
+        //then
+        int finalQuantity = fastStockCounters.overlay(hotBeerDTO).getQuantity();
+        assertThat(finalQuantity, is(equalTo(250 + appliedDelta)));
+        assertThat(finalQuantity, is(both(greaterThanOrEqualTo(0)).and(lessThanOrEqualTo(500))));
+    }
+}
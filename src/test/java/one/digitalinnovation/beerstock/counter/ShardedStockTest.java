@@ -0,0 +1,207 @@
+package one.digitalinnovation.beerstock.counter;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockShardRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class ShardedStockTest {
+
+    private static final int SHARDS = 4;
+    private static final int THREADS = 8;
+    private static final int MAX = 50;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private BeerStockShardRepository shardRepository;
+
+    @Autowired
+    private ShardedStock shardedStock;
+
+    private Long beerId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerId = beerRepository.save(new Beer(null, "Sharded Lager", "Sharded Brewery", MAX, 10, BeerType.LAGER, null)).getId();
+        beerService.shardStock(beerId, SHARDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (shardedStock.isSharded(beerId)) {
+            shardedStock.removeShards(beerId);
+        }
+        beerRepository.deleteById(beerId);
+    }
+
+    @Test
+    void whenStockIsShardedThenQuantityIsTheSumOfTheShards() throws Exception {
+        //then
+        assertThat(shardedStock.isSharded(beerId), is(true));
+        assertThat(shardRepository.findAll().stream().filter(shard -> shard.getBeerId().equals(beerId)).count(), is(equalTo((long) SHARDS)));
+        assertThat(beerService.findByName("Sharded Lager").getQuantity(), is(equalTo(10)));
+    }
+
+    @Test
+    void whenConcurrentIncrementsReachTheMaxThenTheTotalStopsAtTheMax() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                int exceeded = 0;
+                for (int j = 0; j < 10; j++) {
+                    try {
+                        beerService.increment(beerId, 1);
+                    } catch (BeerStockExceededException e) {
+                        exceeded++;
+                    }
+                }
+                return exceeded;
+            }));
+        }
+        int exceeded = 0;
+        for (Future<Integer> result : results) {
+            exceeded += result.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        assertThat(shardRepository.sumQuantity(beerId), is(equalTo((long) MAX)));
+        assertThat(exceeded, is(equalTo(THREADS * 10 - (MAX - 10))));
+    }
+
+    @Test
+    void whenDecrementIsLargerThanAnyShardThenItIsSpreadAndTheFloorHolds() throws Exception {
+        //when
+        beerService.decrement(beerId, 10);
+
+        //then
+        assertThat(shardRepository.sumQuantity(beerId), is(equalTo(0L)));
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrement(beerId, 1));
+    }
+
+    @Test
+    void whenStockIsSummedByTypeAndBrandThenShardsAreCounted() throws Exception {
+        //given
+        beerService.increment(beerId, 30);
+
+        //when
+        List<Object[]> rows = beerRepository.sumStockByTypeAndBrand();
+
+        //then
+        Object[] row = rows.stream().filter(sums -> "Sharded Brewery".equals(sums[1])).findFirst().get();
+        assertThat(row[0], is(equalTo(BeerType.LAGER.name())));
+        assertThat(((Number) row[2]).longValue(), is(equalTo(1L)));
+        assertThat(((Number) row[3]).longValue(), is(equalTo(40L)));
+        assertThat(((Number) row[4]).longValue(), is(equalTo((long) MAX)));
+    }
+
+    @Test
+    void whenAPageIsOverlaidThenEachShardedBeerGetsTheSumOfItsShards() throws Exception {
+        //given
+        Long otherBeerId = beerRepository.save(new Beer(null, "Sharded Stout", "Sharded Brewery", MAX, 5, BeerType.STOUT, null)).getId();
+        beerService.shardStock(otherBeerId, SHARDS);
+        beerService.increment(beerId, 30);
+        beerService.increment(otherBeerId, 2);
+        BeerDTO unshardedBeerDTO = new BeerDTO(-1L, "Unsharded Ale", "Sharded Brewery", MAX, 3, BeerType.ALE);
+
+        //when
+        List<BeerDTO> beerDTOs = shardedStock.overlay(Arrays.asList(
+                new BeerDTO(beerId, "Sharded Lager", "Sharded Brewery", MAX, 0, BeerType.LAGER),
+                unshardedBeerDTO,
+                new BeerDTO(otherBeerId, "Sharded Stout", "Sharded Brewery", MAX, 0, BeerType.STOUT)));
+
+        //then
+        shardedStock.removeShards(otherBeerId);
+        beerRepository.deleteById(otherBeerId);
+        assertThat(beerDTOs.stream().map(BeerDTO::getQuantity).collect(Collectors.toList()), contains(40, 3, 7));
+        assertThat(beerDTOs.get(1), is(sameInstance(unshardedBeerDTO)));
+    }
+
+    @Test
+    void whenStockIsUnshardedThenTheSumIsWrittenBackToTheBeer() throws Exception {
+        //given
+        beerService.increment(beerId, 30);
+
+        //when
+        beerService.unshardStock(beerId);
+
+        //then
+        assertThat(shardedStock.isSharded(beerId), is(false));
+        assertThat(shardRepository.sumQuantity(beerId), is(equalTo(0L)));
+        assertThat(beerRepository.findById(beerId).get().getQuantity(), is(equalTo(40)));
+    }
+
+    @Test
+    void whenStockIsReshardedAndUnshardedDuringMovesThenNoMoveIsLost() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                int moved = 0;
+                for (int j = 0; j < 20; j++) {
+                    try {
+                        if (j % 2 == 0) {
+                            beerService.increment(beerId, 2);
+                            moved += 2;
+                        } else {
+                            beerService.decrement(beerId, 1);
+                            moved--;
+                        }
+                    } catch (BeerStockExceededException e) {
+                        // a full or empty stock rejects the move and leaves the total as it was
+                    }
+                }
+                return moved;
+            }));
+        }
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            beerService.shardStock(beerId, SHARDS - i % 2);
+        }
+        beerService.unshardStock(beerId);
+        int moved = 0;
+        for (Future<Integer> result : results) {
+            moved += result.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        assertThat(shardedStock.isSharded(beerId), is(false));
+        assertThat(beerRepository.findById(beerId).get().getQuantity(), is(equalTo(10 + moved)));
+    }
+}
@@ -0,0 +1,231 @@
+package one.digitalinnovation.beerstock.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerChangeDTO;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLowStockDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.event.BeerLowStockEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BeerChangeFeedTest {
+
+    private static final int CAPACITY = 8;
+
+    private static final Duration SEND_TIMEOUT = Duration.ofMillis(200);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BeerChangeFeed beerChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        beerChangeFeed = new BeerChangeFeed(objectMapper, CAPACITY, 4, 1, SEND_TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerChangeFeed.close();
+    }
+
+    @Test
+    void whenBeersChangeThenEverySubscriberReceivesTheChangesInOrder() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        RecordingSubscriber firstSubscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber secondSubscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        beerChangeFeed.subscribe(null, firstSubscriber);
+        beerChangeFeed.subscribe(null, secondSubscriber);
+
+        //when
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        for (int i = 1; i <= 5; i++) {
+            beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO.toBuilder().quantity(beerDTO.getQuantity() + i).build(), 1));
+        }
+
+        //then
+        for (RecordingSubscriber subscriber : List.of(firstSubscriber, secondSubscriber)) {
+            List<ChangeFeedEvent> events = subscriber.take(6);
+            assertThat(events.get(0).getName(), is(ChangeFeedEvent.CHANGE));
+            assertThat(change(events.get(0)), is(new BeerChangeDTO(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity())));
+            assertThat(change(events.get(5)).getBeer().getQuantity(), is(beerDTO.getQuantity() + 5));
+        }
+        assertThat(beerChangeFeed.getSubscriberCount(), is(2));
+    }
+
+    @Test
+    void whenAStockAlertIsPublishedThenSubscribersReceiveItAsALowStockEvent() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().max(50).quantity(5).build().toBeerDTO();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        beerChangeFeed.subscribe(null, subscriber);
+
+        //when
+        beerChangeFeed.onLowStock(new BeerLowStockEvent(beerDTO, 0.1));
+
+        //then
+        ChangeFeedEvent event = subscriber.take(1).get(0);
+        assertThat(event.getName(), is(ChangeFeedEvent.LOW_STOCK));
+        assertThat(objectMapper.readValue(event.getData(), BeerLowStockDTO.class), is(new BeerLowStockDTO(beerDTO, 0.1)));
+    }
+
+    @Test
+    void whenSubscriberResumesFromLastEventIdThenTheChangesAfterItAreSent() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        BeerChangeFeed.Subscription subscription = beerChangeFeed.subscribe(null, subscriber);
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        String lastEventId = subscriber.take(1).get(0).getId();
+        subscription.cancel();
+
+        //when
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO.toBuilder().quantity(9).build(), -1));
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, beerDTO.toBuilder().quantity(9).build(), -9));
+        RecordingSubscriber resumedSubscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        beerChangeFeed.subscribe(lastEventId, resumedSubscriber);
+
+        //then
+        List<ChangeFeedEvent> events = resumedSubscriber.take(2);
+        assertThat(change(events.get(0)).getType(), is(BeerChangeType.DECREMENTED));
+        assertThat(change(events.get(1)).getType(), is(BeerChangeType.DELETED));
+        assertThat(resumedSubscriber.poll(), is(nullValue()));
+    }
+
+    @Test
+    void whenSubscriberFallsBehindTheRingThenItIsResyncedToTheLatestChange() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        RecordingSubscriber slowSubscriber = new RecordingSubscriber(0);
+        BeerChangeFeed.Subscription subscription = beerChangeFeed.subscribe(null, slowSubscriber);
+        for (int i = 0; i < CAPACITY * 2; i++) {
+            beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 1));
+        }
+
+        //when
+        slowSubscriber.demand = Long.MAX_VALUE;
+        subscription.request();
+        ChangeFeedEvent resync = slowSubscriber.take(1).get(0);
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, beerDTO, -beerDTO.getQuantity()));
+
+        //then
+        assertThat(resync.getName(), is(ChangeFeedEvent.RESYNC));
+        assertThat(resync.getData(), is(objectMapper.writeValueAsString(resync.getId())));
+        assertThat(change(slowSubscriber.take(1).get(0)).getType(), is(BeerChangeType.DELETED));
+    }
+
+    @Test
+    void whenLastEventIdIsNotFromThisFeedThenSubscriberIsResynced() throws Exception {
+        //given
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+
+        //when
+        beerChangeFeed.subscribe("0-42", subscriber);
+
+        //then
+        assertThat(subscriber.take(1).get(0).getName(), is(ChangeFeedEvent.RESYNC));
+    }
+
+    @Test
+    void whenSubscriberIsBlockedSendingThenItIsClosedAndTheOthersStillReceiveTheChanges() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BlockedSubscriber blockedSubscriber = new BlockedSubscriber();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        beerChangeFeed.subscribe(null, blockedSubscriber);
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 1));
+        assertThat(blockedSubscriber.sending.await(5, TimeUnit.SECONDS), is(true));
+        beerChangeFeed.subscribe(null, subscriber);
+
+        //when
+        beerChangeFeed.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO, -1));
+
+        //then
+        assertThat(change(subscriber.take(1).get(0)).getType(), is(BeerChangeType.DECREMENTED));
+        assertThat(beerChangeFeed.getSubscriberCount(), is(1));
+        blockedSubscriber.release.countDown();
+        assertThat(blockedSubscriber.closed.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    private BeerChangeDTO change(ChangeFeedEvent event) throws Exception {
+        return objectMapper.readValue(event.getData(), BeerChangeDTO.class);
+    }
+
+    private static class RecordingSubscriber implements BeerChangeFeed.Subscriber {
+
+        private final BlockingQueue<ChangeFeedEvent> events = new LinkedBlockingQueue<>();
+        private volatile long demand;
+
+        RecordingSubscriber(long demand) {
+            this.demand = demand;
+        }
+
+        @Override
+        public long demand() {
+            return demand;
+        }
+
+        @Override
+        public void send(List<ChangeFeedEvent> events) {
+            this.events.addAll(events);
+        }
+
+        List<ChangeFeedEvent> take(int count) throws InterruptedException {
+            List<ChangeFeedEvent> taken = new ArrayList<>(count);
+            while (taken.size() < count) {
+                ChangeFeedEvent event = events.poll(5, TimeUnit.SECONDS);
+                assertThat(event, is(notNullValue()));
+                taken.add(event);
+            }
+            return taken;
+        }
+
+        ChangeFeedEvent poll() throws InterruptedException {
+            return events.poll(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static class BlockedSubscriber implements BeerChangeFeed.Subscriber {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public long demand() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public void send(List<ChangeFeedEvent> events) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
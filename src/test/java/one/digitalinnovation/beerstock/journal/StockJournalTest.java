@@ -0,0 +1,186 @@
+package one.digitalinnovation.beerstock.journal;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockJournalTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenChangesAreAppendedThenReplayRebuildsTheBeers() throws Exception {
+        //given
+        StockJournal stockJournal = openJournal(DataSize.ofMegabytes(1));
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO deletedBeerDTO = beerDTO.toBuilder().id(2L).name("Deleted").build();
+
+        //when
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 20));
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO, -5));
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.CREATED, deletedBeerDTO, 0));
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.DELETED, deletedBeerDTO, 0));
+        stockJournal.close();
+
+        //then
+        Map<Long, BeerDTO> beers = new HashMap<>();
+        assertThat(StockJournal.replay(directory, beers), is(equalTo(5L)));
+        assertThat(beers.keySet(), contains(beerDTO.getId()));
+        assertThat(beers.get(beerDTO.getId()), is(equalTo(beerDTO.toBuilder().quantity(beerDTO.getQuantity() + 15).build())));
+    }
+
+    @Test
+    void whenSegmentsRotateThenClosedSegmentsAreFoldedIntoASnapshot() throws Exception {
+        //given
+        StockJournal stockJournal = openJournal(DataSize.ofBytes(256));
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        for (int i = 0; i < 100; i++) {
+            stockJournal.append(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 1));
+        }
+        stockJournal.close();
+
+        //then
+        Map<Long, BeerDTO> beers = new HashMap<>();
+        assertThat(StockJournal.replay(directory, beers), is(equalTo(101L)));
+        assertThat(beers.get(beerDTO.getId()).getQuantity(), is(equalTo(beerDTO.getQuantity() + 100)));
+        assertThat(fileNames(), hasItem(startsWith(JournalSnapshot.FILE_PREFIX)));
+        assertThat(fileNames().stream().filter(name -> name.startsWith(JournalSegment.FILE_PREFIX)).count(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenAMoveIsAppendedBeforeItsBeerCreationThenReplayStillAppliesIt() throws Exception {
+        //given
+        StockJournal stockJournal = openJournal(DataSize.ofBytes(256));
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO lateBeerDTO = beerDTO.toBuilder().id(2L).name("Late").build();
+
+        //when
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.INCREMENTED, lateBeerDTO, 3));
+        for (int i = 0; i < 20; i++) {
+            stockJournal.append(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 1));
+        }
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.CREATED, lateBeerDTO, lateBeerDTO.getQuantity()));
+        stockJournal.close();
+
+        //then
+        Map<Long, BeerDTO> beers = new HashMap<>();
+        assertThat(StockJournal.replay(directory, beers), is(equalTo(23L)));
+        assertThat(fileNames(), hasItem(startsWith(JournalSnapshot.FILE_PREFIX)));
+        assertThat(beers.get(lateBeerDTO.getId()).getQuantity(), is(equalTo(lateBeerDTO.getQuantity() + 3)));
+        assertThat(beers.get(beerDTO.getId()).getQuantity(), is(equalTo(beerDTO.getQuantity() + 20)));
+    }
+
+    @Test
+    void whenAnEntryIsCorruptThenReplayStopsBeforeIt() throws Exception {
+        //given
+        StockJournal stockJournal = openJournal(DataSize.ofMegabytes(1));
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 20));
+        stockJournal.append(new BeerChangeEvent(BeerChangeType.DELETED, beerDTO, -beerDTO.getQuantity() - 20));
+        stockJournal.close();
+
+        //when
+        Path segment = directory.resolve(fileNames().stream()
+                .filter(name -> name.startsWith(JournalSegment.FILE_PREFIX))
+                .findFirst()
+                .get());
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int secondEntryBody = 2 * Integer.BYTES + buffer.getInt(0) + 2 * Integer.BYTES;
+            buffer.put(secondEntryBody + 1, (byte) (buffer.get(secondEntryBody + 1) ^ 0xFF));
+            buffer.force();
+        }
+
+        //then
+        Map<Long, BeerDTO> beers = new HashMap<>();
+        assertThat(StockJournal.replay(directory, beers), is(equalTo(1L)));
+        assertThat(beers.get(beerDTO.getId()), is(equalTo(beerDTO)));
+    }
+
+    @Test
+    void whenTheApplicationRestartsThenTheBeerTableIsRebuiltFromTheJournal() throws Exception {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Journaled Lager").build().toBeerDTO();
+        BeerDTO createdBeerDTO;
+        try (ConfigurableApplicationContext context = startApplication()) {
+            BeerService beerService = context.getBean(BeerService.class);
+            createdBeerDTO = beerService.createBeer(beerDTO);
+            beerService.increment(createdBeerDTO.getId(), 5);
+            beerService.decrement(createdBeerDTO.getId(), 2);
+        }
+
+        //when
+        try (ConfigurableApplicationContext context = startApplication()) {
+            BeerService beerService = context.getBean(BeerService.class);
+
+            //then
+            assertThat(beerService.findByName(beerDTO.getName()), is(equalTo(createdBeerDTO.toBuilder()
+                    .quantity(beerDTO.getQuantity() + 3)
+                    .build())));
+            assertThat(beerService.createBeer(beerDTO.toBuilder().name("Journaled Ale").build()).getId(),
+                    is(greaterThan(createdBeerDTO.getId())));
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(BeerstockApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:beerstock-journal",
+                        "--beerstock.journal.enabled=true",
+                        "--beerstock.journal.directory=" + directory);
+    }
+
+    private StockJournal openJournal(DataSize segmentSize) throws Exception {
+        StockJournal stockJournal = new StockJournal(directory.toString(), segmentSize, jdbcTemplate, transactionTemplate);
+        stockJournal.recover();
+        return stockJournal;
+    }
+
+    private List<String> fileNames() throws Exception {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+}
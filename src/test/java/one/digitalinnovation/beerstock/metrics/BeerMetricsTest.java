@@ -0,0 +1,101 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerMetricsTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BeerMetricsAspect beerMetricsAspect;
+
+    private BeerStockMetrics beerStockMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        beerMetricsAspect = new BeerMetricsAspect(meterRegistry);
+        beerStockMetrics = new BeerStockMetrics(meterRegistry);
+    }
+
+    @Test
+    void whenServiceCallSucceedsThenItIsTimedWithSuccessOutcome() throws Throwable {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getDeclaringType()).thenReturn(BeerService.class);
+        when(signature.getName()).thenReturn("findByName");
+        when(joinPoint.proceed()).thenReturn(beerDTO);
+
+        //then
+        assertThat(beerMetricsAspect.time(joinPoint), is(beerDTO));
+        Timer timer = meterRegistry.get(BeerMetricsAspect.TIMER_NAME)
+                .tag("component", "BeerService")
+                .tag("method", "findByName")
+                .tag("outcome", "success")
+                .timer();
+        assertThat(timer.count(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenServiceCallThrowsThenItIsTimedWithExceptionOutcome() throws Throwable {
+        //when
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getDeclaringType()).thenReturn(BeerService.class);
+        when(signature.getName()).thenReturn("findByName");
+        when(joinPoint.proceed()).thenThrow(new BeerNotFoundException("Brahma"));
+
+        //then
+        assertThrows(BeerNotFoundException.class, () -> beerMetricsAspect.time(joinPoint));
+        Timer timer = meterRegistry.get(BeerMetricsAspect.TIMER_NAME)
+                .tag("method", "findByName")
+                .tag("outcome", "not_found")
+                .timer();
+        assertThat(timer.count(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenStockMovesThenUnitsAreCountedPerBeerType() {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().type(BeerType.IPA).build().toBeerDTO();
+
+        //when
+        beerStockMetrics.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 10));
+        beerStockMetrics.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO, -4));
+        beerStockMetrics.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, 7));
+
+        //then
+        assertThat(meterRegistry.get(BeerStockMetrics.UNITS_COUNTER_NAME).tag("type", "IPA").tag("direction", "added")
+                .counter().count(), is(equalTo(10.0)));
+        assertThat(meterRegistry.get(BeerStockMetrics.UNITS_COUNTER_NAME).tag("type", "IPA").tag("direction", "removed")
+                .counter().count(), is(equalTo(4.0)));
+    }
+}
@@ -0,0 +1,123 @@
+package one.digitalinnovation.beerstock.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.service.BeerExportService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BeerSecondLevelCacheTest {
+
+    private static final String BEER_NAME = "Cached Lager";
+
+    private static final String OTHER_BEER_NAME = "Cached Stout";
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BeerExportService beerExportService;
+
+    private Statistics statistics;
+
+    private Long beerId;
+
+    private Long otherBeerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        beerId = beerRepository.save(new Beer(null, BEER_NAME, "Ambev", 50, 10, BeerType.LAGER, null)).getId();
+        otherBeerId = beerRepository.save(new Beer(null, OTHER_BEER_NAME, "Ambev", 50, 10, BeerType.STOUT, null)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteById(beerId);
+        beerRepository.deleteById(otherBeerId);
+    }
+
+    @Test
+    void whenBeerIsReadAgainThenNoSqlIsExecuted() {
+        //given
+        beerRepository.findById(beerId);
+        beerRepository.findByName(BEER_NAME);
+        long statements = statistics.getPrepareStatementCount();
+
+        //when
+        Beer beerById = beerRepository.findById(beerId).get();
+        Beer beerByName = beerRepository.findByName(BEER_NAME).get();
+
+        //then
+        assertThat(statistics.getPrepareStatementCount(), is(equalTo(statements)));
+        assertThat(beerById.getName(), is(equalTo(BEER_NAME)));
+        assertThat(beerByName.getId(), is(equalTo(beerId)));
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", Beer.class.getName())
+                .tag("result", "hit")
+                .functionCounter().count(), is(greaterThan(0.0)));
+    }
+
+    @Test
+    void whenCatalogIsExportedThenStreamedBeersAreNotPutInTheCache() throws Exception {
+        //given
+        entityManagerFactory.getCache().evict(Beer.class);
+
+        //when
+        beerExportService.exportTo(new ByteArrayOutputStream());
+
+        //then
+        assertThat(entityManagerFactory.getCache().contains(Beer.class, beerId), is(false));
+        assertThat(entityManagerFactory.getCache().contains(Beer.class, otherBeerId), is(false));
+    }
+
+    @Test
+    void whenBeerIsUpdatedThenCachedReadsSeeTheNewQuantity() {
+        //given
+        beerRepository.findByName(BEER_NAME);
+
+        //when
+        beerRepository.updateQuantity(beerId, 42);
+
+        //then
+        assertThat(beerRepository.findById(beerId).get().getQuantity(), is(equalTo(42)));
+        assertThat(beerRepository.findByName(BEER_NAME).get().getQuantity(), is(equalTo(42)));
+    }
+
+    @Test
+    void whenStockOfABeerMovesThenOtherCachedBeersStayCached() {
+        //given
+        beerRepository.findById(beerId);
+        beerRepository.findByName(OTHER_BEER_NAME);
+
+        //when
+        assertThat(beerRepository.incrementQuantity(beerId, 5), is(equalTo(1)));
+        assertThat(beerRepository.decrementQuantity(beerId, 20), is(equalTo(0)));
+        assertThat(beerRepository.updateQuantity(beerId, 20), is(equalTo(1)));
+        long statements = statistics.getPrepareStatementCount();
+
+        //then
+        assertThat(beerRepository.findByName(OTHER_BEER_NAME).get().getQuantity(), is(equalTo(10)));
+        assertThat(statistics.getPrepareStatementCount(), is(equalTo(statements)));
+        assertThat(beerRepository.findById(beerId).get().getQuantity(), is(equalTo(20)));
+    }
+}
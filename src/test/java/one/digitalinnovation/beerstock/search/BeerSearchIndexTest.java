@@ -0,0 +1,107 @@
+package one.digitalinnovation.beerstock.search;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerSearchIndexTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private BeerSearchIndex beerSearchIndex;
+
+    private BeerDTO brahmaDTO;
+    private BeerDTO brahmaDuploMalteDTO;
+    private BeerDTO colorado;
+
+    @BeforeEach
+    void setUp() {
+        beerSearchIndex = new BeerSearchIndex(beerRepository);
+        brahmaDTO = BeerDTOBuilder.builder().id(1L).name("Brahma").brand("Ambev").type(BeerType.LAGER).build().toBeerDTO();
+        brahmaDuploMalteDTO = BeerDTOBuilder.builder().id(2L).name("Brahma Duplo Malte").brand("Ambev").type(BeerType.ALE).build().toBeerDTO();
+        colorado = BeerDTOBuilder.builder().id(3L).name("Colorado Indica").brand("Cervejaria Colorado São Paulo").type(BeerType.IPA).build().toBeerDTO();
+        Arrays.asList(brahmaDTO, brahmaDuploMalteDTO, colorado)
+                .forEach(beerDTO -> beerSearchIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity())));
+    }
+
+    @Test
+    void whenQueryIsAPrefixThenBeersWithAWordStartingWithItAreReturned() {
+        assertThat(beerSearchIndex.search("bra", null, 10), contains(brahmaDTO, brahmaDuploMalteDTO));
+        assertThat(beerSearchIndex.search("AMB", null, 10), contains(brahmaDTO, brahmaDuploMalteDTO));
+        assertThat(beerSearchIndex.search("sao", null, 10), contains(colorado));
+        assertThat(beerSearchIndex.search("bra", null, 1), contains(brahmaDTO));
+    }
+
+    @Test
+    void whenQueryHasSeveralWordsOrATypeThenEveryOneMustMatch() {
+        assertThat(beerSearchIndex.search("brahma malt", null, 10), contains(brahmaDuploMalteDTO));
+        assertThat(beerSearchIndex.search("brahma", BeerType.LAGER, 10), contains(brahmaDTO));
+        assertThat(beerSearchIndex.search("colorado ambev", null, 10), is(empty()));
+    }
+
+    @Test
+    void whenQueryHasOneTypoThenBeersOneEditAwayAreReturned() {
+        assertThat(beerSearchIndex.search("brhama", null, 10), containsInAnyOrder(brahmaDTO, brahmaDuploMalteDTO));
+        assertThat(beerSearchIndex.search("colorafo", null, 10), contains(colorado));
+        assertThat(beerSearchIndex.search("cloroado", null, 10), is(empty()));
+    }
+
+    @Test
+    void whenBeersChangeThenTheIndexFollows() {
+        //given
+        BeerDTO movedBrahmaDTO = brahmaDTO.toBuilder().quantity(brahmaDTO.getQuantity() + 5).build();
+
+        //when
+        beerSearchIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, movedBrahmaDTO, 5));
+        beerSearchIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, brahmaDuploMalteDTO, -brahmaDuploMalteDTO.getQuantity()));
+
+        //then
+        assertThat(beerSearchIndex.search("brahma", null, 10), contains(movedBrahmaDTO));
+        assertThat(beerSearchIndex.size(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenStockMovesArriveOutOfOrderThenTheIndexedQuantityHasEveryMove() {
+        //given
+        BeerDTO firstMoveDTO = brahmaDTO.toBuilder().quantity(brahmaDTO.getQuantity() + 5).build();
+        BeerDTO secondMoveDTO = brahmaDTO.toBuilder().quantity(brahmaDTO.getQuantity() + 2).build();
+
+        //when
+        beerSearchIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, secondMoveDTO, -3));
+        beerSearchIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, firstMoveDTO, 5));
+
+        //then
+        assertThat(beerSearchIndex.search("brahma", BeerType.LAGER, 10), contains(secondMoveDTO));
+    }
+
+    @Test
+    void whenSingletonsAreReadyThenRegisteredBeersAreLoaded() {
+        //given
+        BeerSearchIndex loadedIndex = new BeerSearchIndex(beerRepository);
+
+        //when
+        when(beerRepository.findBeerDTOsByIdGreaterThan(0L, PageRequest.of(0, 1000))).thenReturn(Collections.singletonList(colorado));
+        loadedIndex.afterSingletonsInstantiated();
+
+        //then
+        assertThat(loadedIndex.search("indica", BeerType.IPA, 10), contains(colorado));
+    }
+}
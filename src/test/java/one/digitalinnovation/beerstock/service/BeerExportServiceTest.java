@@ -0,0 +1,132 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.counter.ShardedStock;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerExportServiceTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private FastStockCounters fastStockCounters = new FastStockCounters(null, false, Collections.emptySet());
+
+    @Spy
+    private ShardedStock shardedStock = new ShardedStock(null, null, null);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @InjectMocks
+    private BeerExportService beerExportService;
+
+    private Session session;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+    }
+
+    @Test
+    void whenExportIsCalledThenEachBeerIsWrittenAsOneJsonLineAndDetached() throws IOException {
+        //given
+        BeerDTO firstBeerDTO = BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO();
+        BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+        Beer firstBeer = beerMapper.toModel(firstBeerDTO);
+        Beer secondBeer = beerMapper.toModel(secondBeerDTO);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        when(beerRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(firstBeer, secondBeer));
+
+        //then
+        long exportedBeers = beerExportService.exportTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exportedBeers, is(equalTo(2L)));
+        assertThat(lines.length, is(equalTo(2)));
+        assertThat(objectMapper.readValue(lines[0], BeerDTO.class), is(equalTo(firstBeerDTO)));
+        assertThat(objectMapper.readValue(lines[1], BeerDTO.class), is(equalTo(secondBeerDTO)));
+        verify(entityManager).detach(firstBeer);
+        verify(entityManager).detach(secondBeer);
+        InOrder inOrder = inOrder(session, beerRepository);
+        inOrder.verify(session).setCacheMode(CacheMode.IGNORE);
+        inOrder.verify(beerRepository).streamAllByOrderByIdAsc();
+        inOrder.verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    @Test
+    void whenManyBeersAreExportedThenTheStreamIsFlushedOnlyOnce() throws IOException {
+        //given
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        Stream<Beer> beers = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> beerMapper.toModel(BeerDTOBuilder.builder().id(id).name("Beer " + id).build().toBeerDTO()));
+
+        //when
+        when(beerRepository.streamAllByOrderByIdAsc()).thenReturn(beers);
+
+        //then
+        long exportedBeers = beerExportService.exportTo(outputStream);
+
+        assertThat(exportedBeers, is(equalTo(1000L)));
+        assertThat(flushes.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void whenExportIsCalledWithoutBeersThenNothingIsWritten() throws IOException {
+        //given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        when(beerRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.empty());
+
+        //then
+        long exportedBeers = beerExportService.exportTo(outputStream);
+
+        assertThat(exportedBeers, is(equalTo(0L)));
+        assertThat(outputStream.size(), is(equalTo(0)));
+    }
+}
@@ -0,0 +1,209 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportErrorDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerImportServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private BeerService beerService;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private BeerImportService beerImportService;
+
+    @BeforeEach
+    void setUp() {
+        beerImportService = new BeerImportService(beerService, beerRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), CHUNK_SIZE);
+    }
+
+    @Test
+    void whenNdjsonIsImportedThenValidRowsAreCreatedInChunksAndInvalidRowsAreReported() throws Exception {
+        //given
+        BeerDTO brahmaDTO = newBeerDTO("Brahma");
+        BeerDTO skolDTO = newBeerDTO("Skol");
+        BeerDTO antarcticaDTO = newBeerDTO("Antarctica");
+        InputStream ndjson = asInputStream(
+                asJson(brahmaDTO),
+                "{\"name\": \"Bohemia\", \"brand\": \"Ambev\", \"max\": 50, \"quantity\": 200, \"type\": \"LAGER\"}",
+                "not json",
+                "",
+                asJson(skolDTO),
+                asJson(antarcticaDTO));
+
+        //when
+        when(beerRepository.findNamesIn(ArgumentMatchers.anyCollection())).thenReturn(Collections.emptyList());
+
+        //then
+        BeerImportResultDTO result = beerImportService.importNdjson(ndjson);
+
+        assertThat(result.getRows(), is(equalTo(5L)));
+        assertThat(result.getImported(), is(equalTo(3L)));
+        assertThat(result.getRejected(), is(equalTo(2L)));
+        assertThat(result.getErrors(), hasSize(2));
+        assertThat(result.getErrors().get(0), is(equalTo(new BeerImportErrorDTO(2, "quantity must be less than or equal to 100"))));
+        assertThat(result.getErrors().get(1).getRow(), is(equalTo(3L)));
+        verify(beerService).saveBeers(Arrays.asList(brahmaDTO, skolDTO));
+        verify(beerService).saveBeers(Collections.singletonList(antarcticaDTO));
+    }
+
+    @Test
+    void whenCsvIsImportedThenRowsAreMappedByTheHeader() throws Exception {
+        //given
+        InputStream csv = asInputStream(
+                "type,name,brand,max,quantity",
+                "LAGER,Brahma,Ambev,50,10",
+                "PILSEN,Skol,Ambev,50,10");
+
+        //when
+        when(beerRepository.findNamesIn(ArgumentMatchers.anyCollection())).thenReturn(Collections.emptyList());
+
+        //then
+        BeerImportResultDTO result = beerImportService.importCsv(csv);
+
+        assertThat(result.getImported(), is(equalTo(1L)));
+        assertThat(result.getRejected(), is(equalTo(1L)));
+        assertThat(result.getErrors().get(0).getRow(), is(equalTo(3L)));
+        verify(beerService).saveBeers(Collections.singletonList(newBeerDTO("Brahma")));
+    }
+
+    @Test
+    void whenImportedBeersAreAlreadyRegisteredThenOnlyThoseRowsAreRejected() throws Exception {
+        //given
+        BeerDTO brahmaDTO = newBeerDTO("Brahma");
+        BeerDTO skolDTO = newBeerDTO("Skol");
+        InputStream ndjson = asInputStream(asJson(brahmaDTO), asJson(skolDTO));
+
+        //when
+        when(beerRepository.findNamesIn(ArgumentMatchers.anyCollection())).thenReturn(Collections.singletonList("Brahma"));
+
+        //then
+        BeerImportResultDTO result = beerImportService.importNdjson(ndjson);
+
+        assertThat(result.getImported(), is(equalTo(1L)));
+        assertThat(result.getErrors(), contains(new BeerImportErrorDTO(1, new BeerAlreadyRegisteredException("Brahma").getMessage())));
+        verify(beerService).saveBeers(Collections.singletonList(skolDTO));
+    }
+
+    @Test
+    void whenCsvHeaderIsQuotedThenRowsAreStillMappedByIt() throws Exception {
+        //given
+        InputStream csv = asInputStream(
+                "\"type\", \"name\",brand,max,\"quantity\"\r",
+                "LAGER,Brahma,Ambev,50,10\r");
+
+        //when
+        when(beerRepository.findNamesIn(ArgumentMatchers.anyCollection())).thenReturn(Collections.emptyList());
+
+        //then
+        BeerImportResultDTO result = beerImportService.importCsv(csv);
+
+        assertThat(result.getImported(), is(equalTo(1L)));
+        verify(beerService).saveBeers(Collections.singletonList(newBeerDTO("Brahma")));
+    }
+
+    @Test
+    void whenRowIsLongerThanTheLimitThenOnlyThatRowIsRejected() throws Exception {
+        //given
+        BeerDTO brahmaDTO = newBeerDTO("Brahma");
+        String longRow = "{\"name\": \"" + "x".repeat(BeerImportService.MAX_LINE_LENGTH) + "\"}";
+        InputStream ndjson = asInputStream(longRow, asJson(brahmaDTO));
+
+        //when
+        when(beerRepository.findNamesIn(ArgumentMatchers.anyCollection())).thenReturn(Collections.emptyList());
+
+        //then
+        BeerImportResultDTO result = beerImportService.importNdjson(ndjson);
+
+        assertThat(result.getRows(), is(equalTo(2L)));
+        assertThat(result.getImported(), is(equalTo(1L)));
+        assertThat(result.getErrors(), contains(new BeerImportErrorDTO(1, "row is longer than " + BeerImportService.MAX_LINE_LENGTH + " characters")));
+        verify(beerService).saveBeers(Collections.singletonList(brahmaDTO));
+    }
+
+    @Test
+    void whenChunkViolatesADatabaseConstraintThenOnlyTheOffendingRowsAreRejected() throws Exception {
+        //given
+        BeerDTO brahmaDTO = newBeerDTO("Brahma");
+        BeerDTO skolDTO = newBeerDTO("Skol");
+        BeerDTO antarcticaDTO = newBeerDTO("Antarctica");
+        InputStream ndjson = asInputStream(asJson(brahmaDTO), asJson(skolDTO), asJson(antarcticaDTO));
+
+        //when
+        when(beerRepository.findNamesIn(ArgumentMatchers.anyCollection())).thenReturn(Collections.emptyList());
+        lenient().doThrow(new DataIntegrityViolationException("unique index violated"))
+                .when(beerService).saveBeers(Arrays.asList(brahmaDTO, skolDTO));
+        lenient().doThrow(new DataIntegrityViolationException("unique index violated"))
+                .when(beerService).saveBeers(Collections.singletonList(skolDTO));
+
+        //then
+        BeerImportResultDTO result = beerImportService.importNdjson(ndjson);
+
+        assertThat(result.getImported(), is(equalTo(2L)));
+        assertThat(result.getRejected(), is(equalTo(1L)));
+        assertThat(result.getErrors(), contains(new BeerImportErrorDTO(2, "unique index violated")));
+        verify(beerService).saveBeers(Collections.singletonList(brahmaDTO));
+        verify(beerService).saveBeers(Collections.singletonList(antarcticaDTO));
+        verify(beerRepository, times(2)).findNamesIn(ArgumentMatchers.anyCollection());
+        verify(beerService, never()).createBeers(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void whenNdjsonRowIsNullThenOnlyThatRowIsRejected() throws Exception {
+        //given
+        BeerDTO brahmaDTO = newBeerDTO("Brahma");
+        InputStream ndjson = asInputStream("null", asJson(brahmaDTO));
+
+        //when
+        when(beerRepository.findNamesIn(ArgumentMatchers.anyCollection())).thenReturn(Collections.emptyList());
+
+        //then
+        BeerImportResultDTO result = beerImportService.importNdjson(ndjson);
+
+        assertThat(result.getImported(), is(equalTo(1L)));
+        assertThat(result.getErrors(), contains(new BeerImportErrorDTO(1, "row is not a beer")));
+        verify(beerService).saveBeers(Collections.singletonList(brahmaDTO));
+    }
+
+    private static BeerDTO newBeerDTO(String name) {
+        return BeerDTOBuilder.builder().id(null).name(name).type(BeerType.LAGER).build().toBeerDTO();
+    }
+
+    private static String asJson(BeerDTO beerDTO) throws IOException {
+        return new ObjectMapper().writeValueAsString(beerDTO);
+    }
+
+    private static InputStream asInputStream(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
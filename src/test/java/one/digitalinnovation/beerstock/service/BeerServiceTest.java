@@ -1,22 +1,52 @@
 package one.digitalinnovation.beerstock.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.counter.ShardedStock;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.cache.CatalogVersion;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveDTO;
+import one.digitalinnovation.beerstock.dto.StockMoveResultDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.StockMoveStatus;
+import one.digitalinnovation.beerstock.enums.StockUpdateStrategy;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.search.BeerSearchIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -28,10 +58,32 @@ import static org.mockito.Mockito.*;
 public class BeerServiceTest {
 
     private static final long INVALID_BEER_ID = 1L;
+    private static final int CONCURRENT_CALLS = 1000;
 
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private FastStockCounters fastStockCounters = new FastStockCounters(null, false, Collections.emptySet());
+
+    @Spy
+    private ShardedStock shardedStock = new ShardedStock(null, null, null);
+
+    @Spy
+    private BeerSearchIndex beerSearchIndex = new BeerSearchIndex(null);
+
+    @Spy
+    private BeerCache beerCache = new BeerCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion(null);
+
+    @Spy
+    private StockUpdatePolicy stockUpdatePolicy = new StockUpdatePolicy(StockUpdateStrategy.ATOMIC, 5, Duration.ofMillis(5), Duration.ofMillis(100));
+
     private BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -59,6 +111,8 @@ public class BeerServiceTest {
         assertThat(createdBeerDTO.getQuantity(), is(equalTo(expectedBeerDTO.getQuantity())));
 
         assertThat(createdBeerDTO.getQuantity(), is(greaterThan(2)));
+
+        verify(eventPublisher).publishEvent(new BeerChangeEvent(BeerChangeType.CREATED, createdBeerDTO, createdBeerDTO.getQuantity()));
     }
 
     @Test
@@ -74,14 +128,49 @@ public class BeerServiceTest {
         assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(expectedBeerDTO));
     }
 
+    @Test
+    void whenBeersAreInformedInBatchThenTheyShouldBeCreated() throws BeerAlreadyRegisteredException {
+        //given
+        BeerDTO brahmaDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO skolDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+        List<Beer> expectedSavedBeers = Arrays.asList(beerMapper.toModel(brahmaDTO), beerMapper.toModel(skolDTO));
+
+        //when
+        when(beerRepository.findNamesIn(new HashSet<>(Arrays.asList("Brahma", "Skol")))).thenReturn(Collections.emptyList());
+        when(beerRepository.saveAll(expectedSavedBeers)).thenReturn(expectedSavedBeers);
+
+        //then
+        List<BeerDTO> createdBeerDTOs = beerService.createBeers(Arrays.asList(brahmaDTO, skolDTO));
+
+        assertThat(createdBeerDTOs, contains(brahmaDTO, skolDTO));
+        verify(beerRepository, never()).findByName(anyString());
+        verify(eventPublisher).publishEvent(new BeerChangeEvent(BeerChangeType.CREATED, brahmaDTO, brahmaDTO.getQuantity()));
+        verify(eventPublisher).publishEvent(new BeerChangeEvent(BeerChangeType.CREATED, skolDTO, skolDTO.getQuantity()));
+    }
+
+    @Test
+    void whenBatchHasAlreadyRegisteredOrRepeatedBeersThenAnExceptionShouldBeThrown() {
+        //given
+        BeerDTO brahmaDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO skolDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+
+        //when
+        when(beerRepository.findNamesIn(new HashSet<>(Arrays.asList("Brahma", "Skol")))).thenReturn(Collections.singletonList("Skol"));
+
+        //then
+        BeerAlreadyRegisteredException exception = assertThrows(BeerAlreadyRegisteredException.class,
+                () -> beerService.createBeers(Arrays.asList(brahmaDTO, skolDTO, brahmaDTO)));
+        assertThat(exception.getMessage(), containsString("Brahma, Skol"));
+        verify(beerRepository, never()).saveAll(ArgumentMatchers.<Beer>anyIterable());
+    }
+
     @Test
     void whenValidBeerNameIsGivenThenReturnABeer() throws BeerNotFoundException {
         //given
         BeerDTO expectFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectFoundBeerModel = beerMapper.toModel(expectFoundBeerDTO);
 
         //when
-        when(beerRepository.findByName(expectFoundBeerDTO.getName())).thenReturn(Optional.of(expectFoundBeerModel));
+        when(beerRepository.findByName(expectFoundBeerDTO.getName())).thenReturn(Optional.of(beerMapper.toModel(expectFoundBeerDTO)));
 
         //then
         BeerDTO foundedBeerDTO = beerService.findByName(expectFoundBeerDTO.getName());
@@ -89,6 +178,53 @@ public class BeerServiceTest {
         assertThat(foundedBeerDTO.getName(), is(equalTo(expectFoundBeerDTO.getName())));
     }
 
+    @Test
+    void whenSameBeerNameIsSearchedTwiceThenRepositoryIsQueriedOnce() throws BeerNotFoundException {
+        //given
+        BeerDTO expectFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //when
+        when(beerRepository.findByName(expectFoundBeerDTO.getName())).thenReturn(Optional.of(beerMapper.toModel(expectFoundBeerDTO)));
+
+        //then
+        beerService.findByName(expectFoundBeerDTO.getName());
+        BeerDTO foundedBeerDTO = beerService.findByName(expectFoundBeerDTO.getName());
+
+        assertThat(foundedBeerDTO, is(equalTo(expectFoundBeerDTO)));
+        verify(beerRepository, times(1)).findByName(expectFoundBeerDTO.getName());
+    }
+
+    @Test
+    void whenNotRegisteredBeerNameIsSearchedTwiceThenMissingBeerIsCached() {
+        //given
+        String notRegisteredBeerName = "Not registered";
+
+        //when
+        when(beerRepository.findByName(notRegisteredBeerName)).thenReturn(Optional.empty());
+
+        //then
+        assertThrows(BeerNotFoundException.class, () -> beerService.findByName(notRegisteredBeerName));
+        assertThrows(BeerNotFoundException.class, () -> beerService.findByName(notRegisteredBeerName));
+        verify(beerRepository, times(1)).findByName(notRegisteredBeerName);
+    }
+
+    @Test
+    void whenSameBeerNameIsSearchedConcurrentlyThenRepositoryIsQueriedOnce() throws Exception {
+        //given
+        BeerDTO expectFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ConcurrentCalls<BeerDTO> concurrentCalls = new ConcurrentCalls<>(CONCURRENT_CALLS);
+
+        //when
+        when(beerRepository.findByName(expectFoundBeerDTO.getName()))
+                .thenAnswer(invocation -> concurrentCalls.returnWhenOthersWait(Optional.of(beerMapper.toModel(expectFoundBeerDTO))));
+
+        //then
+        List<BeerDTO> foundBeerDTOs = concurrentCalls.run(() -> beerService.findByName(expectFoundBeerDTO.getName()));
+        assertThat(foundBeerDTOs, hasSize(CONCURRENT_CALLS));
+        assertThat(foundBeerDTOs, everyItem(is(equalTo(expectFoundBeerDTO))));
+        verify(beerRepository, times(1)).findByName(expectFoundBeerDTO.getName());
+    }
+
     @Test
     void whenNotRegisteredBeerNameIsGivenThenThrowAnException() {
         //given
@@ -105,26 +241,107 @@ public class BeerServiceTest {
     void whenlistBeerIsCalledThenReturnAListOfBeers() {
         //given
         BeerDTO expectFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedFoundBeer = beerMapper.toModel(expectFoundBeerDTO);
 
         //when
-        when(beerRepository.findAll()).thenReturn(Collections.singletonList(expectedFoundBeer));
+        when(beerRepository.findBeerDTOsByIdGreaterThan(0L, PageRequest.of(0, BeerService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(Collections.singletonList(expectFoundBeerDTO));
 
         //then
-        List<BeerDTO> beerDTOList = beerService.listAll();
-        assertThat(beerDTOList, is(not(empty())));
-        assertThat(beerDTOList.get(0), is(expectFoundBeerDTO));
+        BeerPageDTO beerPage = beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+        assertThat(beerPage.getBeers(), is(not(empty())));
+        assertThat(beerPage.getBeers().get(0), is(expectFoundBeerDTO));
+        assertThat(beerPage.getNextCursor(), is(nullValue()));
     }
 
     @Test
     void whenListBeerIsCalledThenReturnAnEmptyListOfBeers() {
 
         //when
-        when(beerRepository.findAll()).thenReturn(Collections.emptyList());
+        when(beerRepository.findBeerDTOsByIdGreaterThan(0L, PageRequest.of(0, BeerService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(Collections.emptyList());
+
+        //then
+        BeerPageDTO beerPage = beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+        assertThat(beerPage.getBeers(), is(empty()));
+    }
+
+    @Test
+    void whenSamePageIsListedConcurrentlyThenRepositoryIsQueriedOnce() throws Exception {
+        //given
+        BeerDTO expectFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ConcurrentCalls<BeerPageDTO> concurrentCalls = new ConcurrentCalls<>(CONCURRENT_CALLS);
+
+        //when
+        when(beerRepository.findBeerDTOsByIdGreaterThan(0L, PageRequest.of(0, BeerService.DEFAULT_PAGE_SIZE + 1)))
+                .thenAnswer(invocation -> concurrentCalls.returnWhenOthersWait(Collections.singletonList(expectFoundBeerDTO)));
+
+        //then
+        List<BeerPageDTO> beerPages = concurrentCalls.run(() -> beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null));
+        assertThat(beerPages, hasSize(CONCURRENT_CALLS));
+        assertThat(beerPages, everyItem(is(sameInstance(beerPages.get(0)))));
+        assertThat(beerPages.get(0).getBeers(), contains(expectFoundBeerDTO));
+        verify(beerRepository, times(1)).findBeerDTOsByIdGreaterThan(0L, PageRequest.of(0, BeerService.DEFAULT_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void whenCatalogChangesWhileAPageIsLoadingThenLaterCallsDoNotJoinTheOlderQuery() throws Exception {
+        //given
+        BeerDTO oldBeerDTO = BeerDTOBuilder.builder().quantity(10).build().toBeerDTO();
+        BeerDTO changedBeerDTO = BeerDTOBuilder.builder().quantity(20).build().toBeerDTO();
+        PageRequest pageRequest = PageRequest.of(0, BeerService.DEFAULT_PAGE_SIZE + 1);
+        CountDownLatch firstQueryStarted = new CountDownLatch(1);
+        CountDownLatch firstQueryReleased = new CountDownLatch(1);
+        when(beerRepository.findBeerDTOsByIdGreaterThan(0L, pageRequest))
+                .thenAnswer(invocation -> {
+                    firstQueryStarted.countDown();
+                    firstQueryReleased.await(5, TimeUnit.SECONDS);
+                    return Collections.singletonList(oldBeerDTO);
+                })
+                .thenReturn(Collections.singletonList(changedBeerDTO));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<BeerPageDTO> firstPage = executor.submit(() -> beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null));
+        firstQueryStarted.await(5, TimeUnit.SECONDS);
+
+        //when
+        catalogVersion.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, changedBeerDTO, 10));
+        BeerPageDTO pageAfterChange = beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null, null);
+        firstQueryReleased.countDown();
 
         //then
-        List<BeerDTO> beerDTOList = beerService.listAll();
-        assertThat(beerDTOList, is(empty()));
+        assertThat(pageAfterChange.getBeers(), contains(changedBeerDTO));
+        assertThat(firstPage.get(5, TimeUnit.SECONDS).getBeers(), contains(oldBeerDTO));
+        verify(beerRepository, times(2)).findBeerDTOsByIdGreaterThan(0L, pageRequest);
+        executor.shutdown();
+    }
+
+    @Test
+    void whenListBeerHasMoreBeersThanTheLimitThenReturnTheNextCursor() {
+        //given
+        BeerDTO firstBeerDTO = BeerDTOBuilder.builder().id(5L).name("Brahma").build().toBeerDTO();
+        BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(8L).name("Skol").build().toBeerDTO();
+
+        //when
+        when(beerRepository.findBeerDTOsByTypeAndIdGreaterThan(BeerType.LAGER, 3L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(firstBeerDTO, secondBeerDTO));
+
+        //then
+        BeerPageDTO beerPage = beerService.listAll(3L, 1, BeerType.LAGER, null);
+        assertThat(beerPage.getBeers(), hasSize(1));
+        assertThat(beerPage.getBeers().get(0).getId(), is(equalTo(5L)));
+        assertThat(beerPage.getNextCursor(), is(equalTo(5L)));
+    }
+
+    @Test
+    void whenSearchIsCalledThenIndexedBeersAreReturned() {
+        //given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerSearchIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, expectedFoundBeerDTO, expectedFoundBeerDTO.getQuantity()));
+
+        //when
+        List<BeerDTO> foundBeers = beerService.search(expectedFoundBeerDTO.getName().substring(0, 3), null, BeerService.DEFAULT_SEARCH_LIMIT);
+
+        //then
+        assertThat(foundBeers, contains(expectedFoundBeerDTO));
     }
 
     @Test
@@ -142,6 +359,7 @@ public class BeerServiceTest {
 
         verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
         verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+        verify(eventPublisher).publishEvent(new BeerChangeEvent(BeerChangeType.DELETED, expectedDeletedBeerDTO, -expectedDeletedBeerDTO.getQuantity()));
     }
 
     @Test
@@ -157,23 +375,26 @@ public class BeerServiceTest {
     }
 
     @Test
-    void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException {
+    void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         //given
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedFoundBeer = beerMapper.toModel(expectedBeerDTO);
-
-        //when
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedFoundBeer));
-        when(beerRepository.save(expectedFoundBeer)).thenReturn(expectedFoundBeer);
+        Beer expectedIncrementedBeer = beerMapper.toModel(expectedBeerDTO);
 
         int quantityToIncrement = 10;
         int expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedIncrementedBeer.setQuantity(expectedQuantityAfterIncrement);
+
+        //when
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(1);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedIncrementedBeer));
 
         //then
         BeerDTO incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
 
         assertThat(expectedQuantityAfterIncrement, equalTo(incrementedBeerDTO.getQuantity()));
         assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDTO.getMax()));
+        verify(eventPublisher).publishEvent(new BeerChangeEvent(BeerChangeType.INCREMENTED, incrementedBeerDTO, quantityToIncrement));
+        verify(beerRepository, never()).save(ArgumentMatchers.any(Beer.class));
     }
 
     @Test
@@ -181,10 +402,11 @@ public class BeerServiceTest {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-
         int quantityToIncrement = 80;
 
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
         assertThrows(BeerStockExceededException
                 .class, () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
     }
@@ -194,22 +416,22 @@ public class BeerServiceTest {
         //given
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToIncrement = expectedBeer.getQuantity() + 50;
 
         //when
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
         when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
 
         //then
-        int quantityToIncrement = expectedBeer.getQuantity() + 50;
         assertThrows(BeerStockExceededException.class, () -> beerService
                 .increment(expectedBeerDTO.getId(), quantityToIncrement));
     }
 
     @Test
     void whenIncrementIsCalledWithInvalidBeerIDThenThrowException() {
-        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-
         //when
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.empty());
+        when(beerRepository.incrementQuantity(INVALID_BEER_ID, 10)).thenReturn(0);
+        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
 
         //then
         assertThrows(BeerNotFoundException.class, () -> beerService.increment(INVALID_BEER_ID, 10));
@@ -218,36 +440,39 @@ public class BeerServiceTest {
 
 
     @Test
-    void whenDecrementIsCalledThenDecrementBeerStock() throws BeerNotFoundException, BeerStockExceededException {
+    void whenDecrementIsCalledThenDecrementBeerStock() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         //given
         BeerDTO expectBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectFoundedBeer = beerMapper.toModel(expectBeerDTO);
+        Beer expectDecrementedBeer = beerMapper.toModel(expectBeerDTO);
 
         int quantityToDecrement = 5;
         int expectedQuantityAfterDecrement = 5;
+        expectDecrementedBeer.setQuantity(expectedQuantityAfterDecrement);
 
         //when
-        when(beerRepository.findById(expectBeerDTO.getId())).thenReturn(Optional.of(expectFoundedBeer));
-        when(beerRepository.save(expectFoundedBeer)).thenReturn(expectFoundedBeer);
+        when(beerRepository.decrementQuantity(expectBeerDTO.getId(), quantityToDecrement)).thenReturn(1);
+        when(beerRepository.findById(expectBeerDTO.getId())).thenReturn(Optional.of(expectDecrementedBeer));
 
         //then
         BeerDTO beerDTODecremented = beerService.decrement(expectBeerDTO.getId(), quantityToDecrement);
         assertThat(beerDTODecremented.getQuantity(), is(equalTo(expectedQuantityAfterDecrement)));
         assertThat(beerDTODecremented.getQuantity(), is(greaterThan(0)));
-
+        verify(beerRepository, never()).save(ArgumentMatchers.any(Beer.class));
     }
 
     @Test
-    void whenDecrementIsCalledToEmptyStockThenEmptyBeerStock() throws BeerNotFoundException, BeerStockExceededException {
+    void whenDecrementIsCalledToEmptyStockThenEmptyBeerStock() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         //given
         BeerDTO expectBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectFoundedBeer = beerMapper.toModel(expectBeerDTO);
+        Beer expectDecrementedBeer = beerMapper.toModel(expectBeerDTO);
 
         int quantityToDecrement = 10;
         int expectedQuantityAfterDecrement = 0;
+        expectDecrementedBeer.setQuantity(expectedQuantityAfterDecrement);
+
         //when
-        when(beerRepository.findById(expectBeerDTO.getId())).thenReturn(Optional.of(expectFoundedBeer));
-        when(beerRepository.save(expectFoundedBeer)).thenReturn(expectFoundedBeer);
+        when(beerRepository.decrementQuantity(expectBeerDTO.getId(), quantityToDecrement)).thenReturn(1);
+        when(beerRepository.findById(expectBeerDTO.getId())).thenReturn(Optional.of(expectDecrementedBeer));
 
         //then
         BeerDTO emptyStockBeerDTO = beerService.decrement(expectBeerDTO.getId(), quantityToDecrement);
@@ -264,6 +489,7 @@ public class BeerServiceTest {
         int quantityToDecrement = 80;
 
         //when
+        when(beerRepository.decrementQuantity(expectBeerDTO.getId(), quantityToDecrement)).thenReturn(0);
         when(beerRepository.findById(expectBeerDTO.getId())).thenReturn(Optional.of(expectFoundedBeer));
 
         //then
@@ -274,15 +500,140 @@ public class BeerServiceTest {
     @Test
     void whenDecrementIsCalledWithAnInvalidIDThenThrowException() {
         //given
-        BeerDTO expectBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         int expectedQunatityToDecrement = 5;
 
         //when
-        when(beerRepository.findById(expectBeerDTO.getId())).thenReturn(Optional.empty());
+        when(beerRepository.decrementQuantity(INVALID_BEER_ID, expectedQunatityToDecrement)).thenReturn(0);
+        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
 
         //then
         assertThrows(BeerNotFoundException.class, () -> beerService
                 .decrement(INVALID_BEER_ID, expectedQunatityToDecrement));
     }
 
+    @Test
+    void whenIncrementIsCalledWithOptimisticStrategyThenLoadedBeerIsChangedUnderItsVersion() throws Exception {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        expectedBeer.setVersion(3L);
+        int quantityToIncrement = 10;
+
+        //when
+        doReturn(StockUpdateStrategy.OPTIMISTIC).when(stockUpdatePolicy).getStrategy();
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        //then
+        BeerDTO incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
+
+        assertThat(incrementedBeerDTO.getQuantity(), is(equalTo(expectedBeerDTO.getQuantity() + quantityToIncrement)));
+        assertThat(expectedBeer.getQuantity(), is(equalTo(incrementedBeerDTO.getQuantity())));
+        verify(beerRepository, never()).incrementQuantity(anyLong(), anyInt());
+    }
+
+    @Test
+    void whenDecrementIsCalledWithPessimisticStrategyThenBeerIsLockedBeforeTheStockCheck() {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = expectedBeerDTO.getQuantity() + 1;
+
+        //when
+        doReturn(StockUpdateStrategy.PESSIMISTIC).when(stockUpdatePolicy).getStrategy();
+        when(beerRepository.findByIdForUpdate(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        //then
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement));
+        assertThat(expectedBeer.getQuantity(), is(equalTo(expectedBeerDTO.getQuantity())));
+        verify(beerRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void whenStockMovesAreAppliedInBatchThenEachMoveHasItsOwnResult() {
+        //given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        List<StockMoveDTO> stockMoves = Arrays.asList(
+                StockMoveDTO.builder().id(expectedBeerDTO.getId()).delta(30).build(),
+                StockMoveDTO.builder().id(expectedBeerDTO.getId()).delta(20).build(),
+                StockMoveDTO.builder().id(expectedBeerDTO.getId()).delta(-40).build(),
+                StockMoveDTO.builder().id(INVALID_BEER_ID + 1).delta(5).build());
+
+        //when
+        when(beerRepository.findByIdInOrderById(Arrays.asList(expectedBeerDTO.getId(), INVALID_BEER_ID + 1)))
+                .thenReturn(Collections.singletonList(expectedBeer));
+
+        //then
+        List<StockMoveResultDTO> results = beerService.applyStockMoves(stockMoves);
+
+        assertThat(results, hasSize(4));
+        assertThat(results.get(0).getStatus(), is(StockMoveStatus.APPLIED));
+        assertThat(results.get(0).getQuantity(), is(equalTo(40)));
+        assertThat(results.get(1).getStatus(), is(StockMoveStatus.STOCK_EXCEEDED));
+        assertThat(results.get(1).getQuantity(), is(equalTo(40)));
+        assertThat(results.get(2).getStatus(), is(StockMoveStatus.APPLIED));
+        assertThat(results.get(2).getQuantity(), is(equalTo(0)));
+        assertThat(results.get(3).getStatus(), is(StockMoveStatus.NOT_FOUND));
+        assertThat(expectedBeer.getQuantity(), is(equalTo(0)));
+    }
+
+    /**
+     * Runs the same call on its own thread each, all released at once. The stubbed query answers through
+     * {@link #returnWhenOthersWait} so that every other call is already waiting inside the service when the
+     * first one gets its result.
+     */
+    private static class ConcurrentCalls<T> {
+
+        private final int calls;
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch start = new CountDownLatch(1);
+
+        ConcurrentCalls(int calls) {
+            this.calls = calls;
+        }
+
+        List<T> run(Callable<T> call) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(calls, runnable -> {
+                Thread thread = new Thread(runnable);
+                threads.add(thread);
+                return thread;
+            });
+            try {
+                List<Future<T>> futures = new ArrayList<>(calls);
+                for (int i = 0; i < calls; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return call.call();
+                    }));
+                }
+                start.countDown();
+                List<T> results = new ArrayList<>(calls);
+                for (Future<T> future : futures) {
+                    results.add(future.get(30, TimeUnit.SECONDS));
+                }
+                return results;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        <R> R returnWhenOthersWait(R result) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!othersWaitInService() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return result;
+        }
+
+        private boolean othersWaitInService() {
+            return threads.stream()
+                    .filter(thread -> thread != Thread.currentThread())
+                    .allMatch(thread -> thread.getState() != Thread.State.RUNNABLE && inService(thread));
+        }
+
+        private static boolean inService(Thread thread) {
+            return Arrays.stream(thread.getStackTrace())
+                    .anyMatch(frame -> frame.getClassName().equals(BeerService.class.getName()));
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(properties = "beerstock.stock.fast-counters.enabled=true")
+public class BeerStockConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int MOVES_PER_THREAD = 100;
+    private static final int MAX_STOCK = 500;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private FastStockCounters fastStockCounters;
+
+    private Long hotBeerId;
+
+    @BeforeEach
+    void setUp() {
+        Beer hotBeer = new Beer(null, "Hot Lager", "Ambev", MAX_STOCK, 0, BeerType.LAGER, null);
+        hotBeerId = beerRepository.save(hotBeer).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fastStockCounters.unmarkHot(hotBeerId);
+        beerRepository.deleteById(hotBeerId);
+    }
+
+    @Test
+    void whenConcurrentMovesHitTheSameBeerThenNoUpdateIsLost() throws Exception {
+        //when
+        int incremented = runConcurrently(() -> beerService.increment(hotBeerId, 1));
+
+        //then
+        assertThat(incremented, equalTo(MAX_STOCK));
+        assertThat(beerRepository.findById(hotBeerId).get().getQuantity(), equalTo(MAX_STOCK));
+
+        //when
+        int decremented = runConcurrently(() -> beerService.decrement(hotBeerId, 1));
+
+        //then
+        assertThat(decremented, equalTo(MAX_STOCK));
+        assertThat(beerRepository.findById(hotBeerId).get().getQuantity(), equalTo(0));
+    }
+
+    @Test
+    void whenConcurrentMovesHitAHotBeerThenCountersNeverOversellAndAreFlushed() throws Exception {
+        //given
+        fastStockCounters.markHot(hotBeerId);
+
+        //when
+        int incremented = runConcurrently(() -> beerService.increment(hotBeerId, 1));
+
+        //then
+        assertThat(incremented, equalTo(MAX_STOCK));
+        assertThat(beerService.findByName("Hot Lager").getQuantity(), equalTo(MAX_STOCK));
+
+        //when
+        int decremented = runConcurrently(() -> beerService.decrement(hotBeerId, 1));
+        fastStockCounters.flush();
+
+        //then
+        assertThat(decremented, equalTo(MAX_STOCK));
+        assertThat(beerRepository.findById(hotBeerId).get().getQuantity(), equalTo(0));
+    }
+
+    private int runConcurrently(Callable<?> move) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                int applied = 0;
+                for (int j = 0; j < MOVES_PER_THREAD; j++) {
+                    try {
+                        move.call();
+                        applied++;
+                    } catch (BeerStockExceededException ignored) {
+                        // the guarded update rejected a move past the stock bounds
+                    }
+                }
+                return applied;
+            }));
+        }
+        int applied = 0;
+        for (Future<Integer> result : results) {
+            applied += result.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        return applied;
+    }
+}
@@ -0,0 +1,78 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = {
+        "beerstock.stock.update-strategy=optimistic",
+        "beerstock.stock.optimistic.max-attempts=100",
+        "beerstock.stock.optimistic.initial-backoff=1ms",
+        "beerstock.stock.optimistic.max-backoff=10ms"
+})
+public class BeerStockOptimisticLockingTest {
+
+    private static final int THREADS = 8;
+    private static final int MOVES_PER_THREAD = 25;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private Long beerId;
+
+    @BeforeEach
+    void setUp() {
+        beerId = beerRepository.save(new Beer(null, "Versioned Lager", "Ambev", 500, 0, BeerType.LAGER, null)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteById(beerId);
+    }
+
+    @Test
+    void whenConcurrentMovesCollideOnTheVersionThenRetriesApplyEveryMove() throws Exception {
+        //given
+        long initialVersion = beerRepository.findById(beerId).get().getVersion();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                for (int j = 0; j < MOVES_PER_THREAD; j++) {
+                    beerService.increment(beerId, 1);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        Beer beer = beerRepository.findById(beerId).get();
+        assertThat(beer.getQuantity(), is(equalTo(THREADS * MOVES_PER_THREAD)));
+        assertThat(beer.getVersion(), is(equalTo(initialVersion + THREADS * MOVES_PER_THREAD)));
+    }
+}
@@ -0,0 +1,55 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.enums.StockUpdateStrategy;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockConflictRetryAspectTest {
+
+    private static final Long BEER_ID = 1L;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private final StockConflictRetryAspect retryAspect = new StockConflictRetryAspect(
+            new StockUpdatePolicy(StockUpdateStrategy.OPTIMISTIC, MAX_ATTEMPTS, Duration.ofMillis(1), Duration.ofMillis(2)));
+
+    @Test
+    void whenVersionConflictIsTransientThenTheMoveIsRetried() throws Throwable {
+        //when
+        when(joinPoint.proceed())
+                .thenThrow(new ObjectOptimisticLockingFailureException("Beer", BEER_ID))
+                .thenReturn("moved");
+
+        //then
+        assertThat(retryAspect.retryOnConflict(joinPoint), is(equalTo("moved")));
+        verify(joinPoint, times(2)).proceed();
+    }
+
+    @Test
+    void whenVersionConflictOutlastsTheAttemptsThenConflictIsThrown() throws Throwable {
+        //when
+        when(joinPoint.getArgs()).thenReturn(new Object[]{BEER_ID, 10});
+        when(joinPoint.proceed()).thenThrow(new ObjectOptimisticLockingFailureException("Beer", BEER_ID));
+
+        //then
+        BeerStockConflictException conflict = assertThrows(BeerStockConflictException.class,
+                () -> retryAspect.retryOnConflict(joinPoint));
+        assertThat(conflict.getMessage(), containsString("after " + MAX_ATTEMPTS + " attempts"));
+        verify(joinPoint, times(MAX_ATTEMPTS)).proceed();
+    }
+}
@@ -0,0 +1,100 @@
+package one.digitalinnovation.beerstock.stats;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.counter.ShardedStock;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.event.BeerLowStockEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockIndexTest {
+
+    private static final double ALERT_RATIO = 0.1;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LowStockIndex lowStockIndex;
+
+    @BeforeEach
+    void setUp() {
+        lowStockIndex = new LowStockIndex(beerRepository, new ShardedStock(null, null, null),
+                new FastStockCounters(null, false, Collections.emptySet()), eventPublisher, ALERT_RATIO);
+    }
+
+    @Test
+    void whenStockMovesThenBeersAtOrBelowTheRatioAreReturnedEmptiestFirst() {
+        //given
+        BeerDTO halfFullBeerDTO = BeerDTOBuilder.builder().id(1L).max(50).quantity(25).build().toBeerDTO();
+        BeerDTO emptyBeerDTO = BeerDTOBuilder.builder().id(2L).max(10).quantity(0).build().toBeerDTO();
+        BeerDTO fullBeerDTO = BeerDTOBuilder.builder().id(3L).max(10).quantity(10).build().toBeerDTO();
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, halfFullBeerDTO, 25));
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, emptyBeerDTO, 0));
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, fullBeerDTO, 10));
+
+        //when
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, fullBeerDTO, -8));
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, fullBeerDTO, -1));
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, emptyBeerDTO, 3));
+
+        //then
+        assertThat(lowStockIndex.findAtOrBelow(0.5, 10), contains(
+                fullBeerDTO.toBuilder().quantity(1).build(),
+                emptyBeerDTO.toBuilder().quantity(3).build(),
+                halfFullBeerDTO));
+        assertThat(lowStockIndex.findAtOrBelow(0.3, 1), contains(fullBeerDTO.toBuilder().quantity(1).build()));
+        assertThat(lowStockIndex.findAtOrBelow(0.05, 10), is(empty()));
+
+        //when
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, fullBeerDTO, -1));
+
+        //then
+        assertThat(lowStockIndex.findAtOrBelow(1.0, 10), contains(emptyBeerDTO.toBuilder().quantity(3).build(), halfFullBeerDTO));
+        assertThat(lowStockIndex.size(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenStockDropsToTheAlertRatioThenOneLowStockEventIsPublished() {
+        //given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().max(50).quantity(10).build().toBeerDTO();
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, 10));
+
+        //when
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO, -4));
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO, -1));
+        lowStockIndex.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO, -1));
+
+        //then
+        verify(eventPublisher, times(1)).publishEvent(
+                new BeerLowStockEvent(beerDTO.toBuilder().quantity(5).build(), ALERT_RATIO));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void whenAlertRatioIsNotBetweenZeroAndOneThenTheIndexIsNotCreated() {
+        for (double alertRatio : new double[]{Double.NaN, -0.1, 1.5}) {
+            assertThrows(IllegalArgumentException.class, () -> new LowStockIndex(beerRepository,
+                    new ShardedStock(null, null, null), new FastStockCounters(null, false, Collections.emptySet()),
+                    eventPublisher, alertRatio));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.counter.FastStockCounters;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.StockStatsDTO;
+import one.digitalinnovation.beerstock.dto.StockTotalsDTO;
+import one.digitalinnovation.beerstock.enums.BeerChangeType;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangeEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockAggregatesTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private StockAggregates stockAggregates;
+
+    private BeerDTO beerDTO;
+
+    @BeforeEach
+    void setUp() {
+        stockAggregates = new StockAggregates(beerRepository, new FastStockCounters(null, false, Collections.emptySet()), new SimpleMeterRegistry());
+        beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    }
+
+    @Test
+    void whenBeersChangeThenTotalsFollowTheDeltas() {
+        //when
+        stockAggregates.onBeerChange(new BeerChangeEvent(BeerChangeType.CREATED, beerDTO, beerDTO.getQuantity()));
+        StockStatsDTO createdStats = stockAggregates.getStats();
+        stockAggregates.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 5));
+        stockAggregates.onBeerChange(new BeerChangeEvent(BeerChangeType.DECREMENTED, beerDTO, -2));
+
+        //then
+        StockTotalsDTO expectedTotals = new StockTotalsDTO(1, beerDTO.getQuantity() + 3, beerDTO.getMax());
+        StockStatsDTO stats = stockAggregates.getStats();
+        assertThat(stats.getTotal(), is(equalTo(expectedTotals)));
+        assertThat(stats.getByType().get(beerDTO.getType()), is(equalTo(expectedTotals)));
+        assertThat(stats.getByType().get(BeerType.STOUT), is(equalTo(new StockTotalsDTO())));
+        assertThat(stats.getByBrand(), is(equalTo(Collections.singletonMap(beerDTO.getBrand(), expectedTotals))));
+        assertThat(stockAggregates.getStats(), is(sameInstance(stats)));
+        assertThat(createdStats.getTotal().getUnits(), is(equalTo((long) beerDTO.getQuantity())));
+
+        //when
+        stockAggregates.onBeerChange(new BeerChangeEvent(BeerChangeType.DELETED, beerDTO, -(beerDTO.getQuantity() + 3)));
+
+        //then
+        assertThat(stockAggregates.getStats().getTotal(), is(equalTo(new StockTotalsDTO())));
+        assertThat(stockAggregates.getStats().getByBrand(), is(anEmptyMap()));
+    }
+
+    @Test
+    void whenTheTableDisagreesTwiceInARowThenAggregatesAreCorrected() {
+        //given
+        Object[] row = {beerDTO.getType().name(), beerDTO.getBrand(), 1L, (long) beerDTO.getQuantity(), (long) beerDTO.getMax()};
+        when(beerRepository.sumStockByTypeAndBrand()).thenReturn(Collections.singletonList(row));
+        stockAggregates.afterSingletonsInstantiated();
+        stockAggregates.onBeerChange(new BeerChangeEvent(BeerChangeType.INCREMENTED, beerDTO, 7));
+
+        //when
+        int firstRun = stockAggregates.reconcile();
+        int secondRun = stockAggregates.reconcile();
+
+        //then
+        assertThat(firstRun, is(equalTo(0)));
+        assertThat(secondRun, is(equalTo(3)));
+        assertThat(stockAggregates.getStats().getTotal(), is(equalTo(new StockTotalsDTO(1, beerDTO.getQuantity(), beerDTO.getMax()))));
+        assertThat(stockAggregates.reconcile(), is(equalTo(0)));
+    }
+}